@@ -0,0 +1,203 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.eclipse.uml2.common.util.CacheAdapter;
+
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/*
+ * Loads, processes and saves a set of models concurrently.
+ *
+ * Each model gets its own TraverseModel, and so its own ResourceSet, and is
+ * only ever touched by the worker thread that loaded it. At most as many
+ * models as there are workers are held in memory at once. The workers share
+ * a ProfileCache so that profile files are read from disk once per batch
+ * rather than once per model.
+ */
+public class ModelBatch {
+	// UML2 keeps derived values in a single shared cache unless told to keep
+	// one per thread. It reads this property once, when the cache is first
+	// used, so it has to be given on the command line.
+	public static final String THREAD_LOCAL_CACHE = "org.eclipse.uml2.common.util.CacheAdapter.ThreadLocal";
+
+	/*
+	 * How long each stage took for one model
+	 *
+	 * @param path			the model's path
+	 * @param loadMillis	time spent loading the model
+	 * @param workMillis	time spent traversing and updating it
+	 * @param saveMillis	time spent saving it
+	 * @param saved			whether the model was written back to disk
+	 * @param failure		why the model could not be processed, or null
+	 */
+	public record ModelTiming(String path, long loadMillis, long workMillis, long saveMillis, boolean saved,
+			Exception failure) {
+		public long totalMillis() {
+			return loadMillis + workMillis + saveMillis;
+		}
+
+		@Override
+		public String toString() {
+			if (failure != null) {
+				return path + ": failed (" + failure.getMessage() + ")";
+			}
+			return path + ": load " + loadMillis + " ms, work " + workMillis + " ms, save " + saveMillis + " ms"
+					+ (saved ? "" : " (unchanged)");
+		}
+	}
+
+	private int threads;
+	private ProfileCache profiles;
+
+	/*
+	 * Class constructor using one worker per available processor
+	 */
+	public ModelBatch() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/*
+	 * Class constructor. Models can only be loaded in parallel if UML2 keeps
+	 * a cache per thread, so the JVM must be started with
+	 * -Dorg.eclipse.uml2.common.util.CacheAdapter.ThreadLocal=true.
+	 *
+	 * @param threads	the number of models to process at once
+	 * @throws IllegalStateException	if UML2's cache is shared between threads
+	 */
+	public ModelBatch(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("A batch needs at least one worker");
+		}
+		if (!isThreadLocalCache()) {
+			throw new IllegalStateException("Parallel loading needs UML2's per-thread cache; start the JVM with -D"
+					+ THREAD_LOCAL_CACHE + "=true");
+		}
+		this.threads = threads;
+		this.profiles = new ProfileCache();
+	}
+
+	/*
+	 * Runs the same work against every model, saving each model afterwards if
+	 * the work changed it
+	 *
+	 * @param paths	paths to the UML files to process
+	 * @param work	the traversal or update to apply, given each model's path
+	 * 				and its loaded TraverseModel
+	 * @return		a timing for each model, in the order of paths
+	 */
+	public List<ModelTiming> run(List<String> paths, BiConsumer<String, TraverseModel> work) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.threads, Math.max(1, paths.size())));
+		try {
+			List<Future<ModelTiming>> futures = new ArrayList<Future<ModelTiming>>();
+			for (String path : paths) {
+				futures.add(executor.submit(() -> process(path, work)));
+			}
+			List<ModelTiming> timings = new ArrayList<ModelTiming>();
+			for (int i = 0; i < futures.size(); i++) {
+				timings.add(await(paths.get(i), futures.get(i)));
+			}
+			return timings;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/*
+	 * Brings the generated elements of each model up to date with its UCAs
+	 *
+	 * @param ucas	the UCAs for each model, keyed by the model's path
+	 * @return		a timing for each model
+	 */
+	public List<ModelTiming> updateElements(Map<String, List<UnsafeControlAction>> ucas) {
+		return run(new ArrayList<String>(ucas.keySet()),
+				(path, tm) -> new SysMLGenerator(ucas.get(path), tm).updateElements());
+	}
+
+	private ModelTiming process(String path, BiConsumer<String, TraverseModel> work) {
+		long start = System.nanoTime();
+		TraverseModel tm = new TraverseModel(path, this.profiles);
+		long loaded = System.nanoTime();
+		if (tm.getModel() == null) {
+			return new ModelTiming(path, millis(start, loaded), 0, 0, false,
+					new IllegalStateException("Could not load " + path));
+		}
+		try {
+			work.accept(path, tm);
+		} catch (RuntimeException e) {
+			return new ModelTiming(path, millis(start, loaded), millis(loaded, System.nanoTime()), 0, false, e);
+		}
+		long worked = System.nanoTime();
+		boolean modified = tm.isModified();
+		if (modified && !tm.updateUML()) {
+			return new ModelTiming(path, millis(start, loaded), millis(loaded, worked),
+					millis(worked, System.nanoTime()), false, new IllegalStateException("Could not save " + path));
+		}
+		return new ModelTiming(path, millis(start, loaded), millis(loaded, worked), millis(worked, System.nanoTime()),
+				modified, null);
+	}
+
+	private ModelTiming await(String path, Future<ModelTiming> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new ModelTiming(path, 0, 0, 0, false, e);
+		} catch (ExecutionException e) {
+			Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+			return new ModelTiming(path, 0, 0, 0, false, cause);
+		}
+	}
+
+	/*
+	 * Returns whether UML2 gives each thread its own cache, by comparing the
+	 * cache this thread sees with another thread's
+	 */
+	private static boolean isThreadLocalCache() {
+		CacheAdapter[] other = new CacheAdapter[1];
+		Thread t = new Thread(() -> other[0] = CacheAdapter.getInstance(), "UML2 cache check");
+		t.start();
+		try {
+			t.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while checking UML2's cache", e);
+		}
+		return other[0] != CacheAdapter.getInstance();
+	}
+
+	private static long millis(long from, long to) {
+		return TimeUnit.NANOSECONDS.toMillis(to - from);
+	}
+}
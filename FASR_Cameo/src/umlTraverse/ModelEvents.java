@@ -0,0 +1,101 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Java Flight Recorder events for loading, resolving, generating and saving
+ * models.
+ */
+public final class ModelEvents {
+
+	private ModelEvents() {
+	}
+
+	@Name("fasr.model.Load")
+	@Label("Load Model")
+	@Description("Parsing a model file and the profiles it references")
+	@Category({ "FASR", "Model" })
+	@StackTrace(false)
+	public static class Load extends Event {
+		@Label("Path")
+		public String path;
+
+		@Label("File Size")
+		@DataAmount
+		public long bytes;
+	}
+
+	@Name("fasr.model.Resolve")
+	@Label("Resolve Model")
+	@Description("Resolving every proxy in a loaded model")
+	@Category({ "FASR", "Model" })
+	@StackTrace(false)
+	public static class Resolve extends Event {
+		@Label("Path")
+		public String path;
+
+		@Label("Elements")
+		public long elements;
+	}
+
+	@Name("fasr.model.Generate")
+	@Label("Generate Elements")
+	@Description("Adding the elements for a set of UCAs to a model")
+	@Category({ "FASR", "Model" })
+	@StackTrace(false)
+	public static class Generate extends Event {
+		@Label("UCAs")
+		public int ucas;
+
+		@Label("Elements")
+		@Description("The elements in the generated package afterwards")
+		public long elements;
+
+		@Label("Incremental")
+		@Description("Whether an existing generated package was updated rather than replaced")
+		public boolean incremental;
+	}
+
+	@Name("fasr.model.Save")
+	@Label("Save Model")
+	@Description("Serializing a model and replacing its file")
+	@Category({ "FASR", "Model" })
+	@StackTrace(false)
+	public static class Save extends Event {
+		@Label("Path")
+		public String path;
+
+		@Label("Bytes Written")
+		@DataAmount
+		public long bytes;
+	}
+}
@@ -0,0 +1,386 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.uml2.uml.Activity;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.Pseudostate;
+import org.eclipse.uml2.uml.PseudostateKind;
+import org.eclipse.uml2.uml.Region;
+import org.eclipse.uml2.uml.SignalEvent;
+import org.eclipse.uml2.uml.State;
+import org.eclipse.uml2.uml.StateMachine;
+import org.eclipse.uml2.uml.Transition;
+import org.eclipse.uml2.uml.Trigger;
+
+/*
+ * A frozen copy of the parts of a model FASR reads: packages, Machine and
+ * Environment behaviors, regions, states, transitions, their triggers and
+ * every element's qualified name.
+ *
+ * EMF models aren't safe to read on one thread while another modifies them,
+ * or even to read from several threads at once, since reading can resolve
+ * proxies and update caches. A snapshot is built on the thread that owns the
+ * model, holds only arrays and strings, and never changes afterwards, so any
+ * number of threads can query it without locking. Changes still go through
+ * the model, after which a new snapshot can be taken.
+ *
+ * Elements are numbered from 0, in the order the model lists them. Queries
+ * mirror TraverseModel's, but take and return element ids. Arrays returned
+ * are copies.
+ */
+public final class ModelSnapshot {
+	public static final int NONE = -1;
+
+	/*
+	 * The kinds of element a snapshot distinguishes
+	 */
+	public enum Kind {
+		PACKAGE, STATE_MACHINE, ACTIVITY, REGION, STATE, PSEUDOSTATE, TRANSITION, OTHER
+	}
+
+	private static final int[] EMPTY = new int[0];
+
+	private final String[] names;
+	private final String[] qualifiedNames;
+	private final Kind[] kinds;
+	private final int[] owners;
+	private final int[] machines;
+	private final int[] environments;
+	// For state machines, their states; for states, the transitions into and
+	// out of them within their region, including and excluding pseudostates
+	private final int[][] states;
+	private final int[][] incoming;
+	private final int[][] incomingFromStates;
+	private final int[][] outgoing;
+	private final int[] firstStates;
+	// For transitions
+	private final int[] sources;
+	private final int[] targets;
+	private final String[] triggers;
+	private final Map<String, Integer> byQualifiedName;
+	private final Map<String, Integer> topLevelPackages;
+	// Only for the thread that owns the model
+	private final NamedElement[] elements;
+
+	/*
+	 * Takes a snapshot of a model. Must be called on the thread that owns the
+	 * model, while nothing is modifying it.
+	 *
+	 * @param model	the model's root package
+	 * @return		the snapshot
+	 */
+	public static ModelSnapshot of(Package model) {
+		return new ModelSnapshot(model);
+	}
+
+	private ModelSnapshot(Package model) {
+		List<NamedElement> all = new ArrayList<NamedElement>();
+		all.add(model);
+		for (Element e : model.allOwnedElements()) {
+			if (e instanceof NamedElement) {
+				all.add((NamedElement) e);
+			}
+		}
+		int n = all.size();
+		Map<Element, Integer> ids = new IdentityHashMap<Element, Integer>(n);
+		for (int i = 0; i < n; i++) {
+			ids.put(all.get(i), i);
+		}
+
+		this.elements = all.toArray(new NamedElement[0]);
+		this.names = new String[n];
+		this.qualifiedNames = new String[n];
+		this.kinds = new Kind[n];
+		this.owners = new int[n];
+		this.states = new int[n][];
+		this.incoming = new int[n][];
+		this.incomingFromStates = new int[n][];
+		this.outgoing = new int[n][];
+		this.firstStates = new int[n];
+		this.sources = new int[n];
+		this.targets = new int[n];
+		this.triggers = new String[n];
+		Map<String, Integer> qualified = new HashMap<String, Integer>();
+		Map<String, Integer> packages = new HashMap<String, Integer>();
+		List<Integer> machineList = new ArrayList<Integer>();
+		List<Integer> environmentList = new ArrayList<Integer>();
+
+		for (int i = 0; i < n; i++) {
+			NamedElement e = this.elements[i];
+			this.names[i] = e.getName();
+			this.qualifiedNames[i] = e.getQualifiedName();
+			this.kinds[i] = kind(e);
+			this.owners[i] = e.getOwner() == null ? NONE : ids.getOrDefault(e.getOwner(), NONE);
+			this.firstStates[i] = NONE;
+			this.sources[i] = NONE;
+			this.targets[i] = NONE;
+			if (this.qualifiedNames[i] != null) {
+				qualified.putIfAbsent(this.qualifiedNames[i], i);
+			}
+			if (e instanceof Package && e.getOwner() == model && e.getName() != null) {
+				packages.putIfAbsent(e.getName(), i);
+			}
+			if (e instanceof StateMachine || e instanceof Activity) {
+				for (String stereotype : stereotypeNames(e)) {
+					if (stereotype.equals("Machine")) {
+						machineList.add(i);
+					} else if (stereotype.equals("Environment") && e instanceof Activity) {
+						environmentList.add(i);
+					}
+				}
+			}
+			if (e instanceof Transition) {
+				Transition t = (Transition) e;
+				this.sources[i] = ids.getOrDefault(t.getSource(), NONE);
+				this.targets[i] = ids.getOrDefault(t.getTarget(), NONE);
+				this.triggers[i] = trigger(t);
+			}
+		}
+
+		for (int i = 0; i < n; i++) {
+			if (this.elements[i] instanceof StateMachine) {
+				snapshotMachine(i, (StateMachine) this.elements[i], ids);
+			}
+		}
+
+		this.machines = toArray(machineList);
+		this.environments = toArray(environmentList);
+		this.byQualifiedName = Collections.unmodifiableMap(qualified);
+		this.topLevelPackages = Collections.unmodifiableMap(packages);
+	}
+
+	/*
+	 * Records a state machine's states, the transitions around each state and
+	 * its first state, as TraverseModel would find them
+	 */
+	private void snapshotMachine(int sm, StateMachine machine, Map<Element, Integer> ids) {
+		List<Integer> machineStates = new ArrayList<Integer>();
+		for (Element e : machine.allOwnedElements()) {
+			if (e instanceof State) {
+				machineStates.add(ids.get(e));
+			}
+		}
+		this.states[sm] = toArray(machineStates);
+		for (int s : this.states[sm]) {
+			State state = (State) this.elements[s];
+			if (!(state.eContainer() instanceof Region)) {
+				continue;
+			}
+			List<Integer> in = new ArrayList<Integer>();
+			List<Integer> inFromStates = new ArrayList<Integer>();
+			List<Integer> out = new ArrayList<Integer>();
+			for (Transition t : ((Region) state.eContainer()).getTransitions()) {
+				int id = ids.get(t);
+				if (t.getTarget() == state) {
+					in.add(id);
+					if (!(t.getSource() instanceof Pseudostate)) {
+						inFromStates.add(id);
+					}
+					if (this.firstStates[sm] == NONE && t.getSource() instanceof Pseudostate
+							&& ((Pseudostate) t.getSource()).getKind() == PseudostateKind.INITIAL_LITERAL) {
+						this.firstStates[sm] = s;
+					}
+				}
+				if (t.getSource() == state) {
+					out.add(id);
+				}
+			}
+			this.incoming[s] = toArray(in);
+			this.incomingFromStates[s] = toArray(inFromStates);
+			this.outgoing[s] = toArray(out);
+		}
+	}
+
+	public int getElementCount() {
+		return this.names.length;
+	}
+
+	public String getName(int id) {
+		return this.names[id];
+	}
+
+	public String getQualifiedName(int id) {
+		return this.qualifiedNames[id];
+	}
+
+	public Kind getKind(int id) {
+		return this.kinds[id];
+	}
+
+	/*
+	 * Returns the id of an element's owner, or NONE for the model itself
+	 */
+	public int getOwner(int id) {
+		return this.owners[id];
+	}
+
+	/*
+	 * Returns the Machine behaviors and the Environment activities, as
+	 * TraverseModel.getDiagrams does for the whole model
+	 *
+	 * @return	the ids of the Machine behaviors, then of the Environment
+	 * 			activities
+	 */
+	public List<int[]> getDiagrams() {
+		return List.of(this.machines.clone(), this.environments.clone());
+	}
+
+	/*
+	 * Returns a package directly owned by the model
+	 *
+	 * @param packageName	the package's name
+	 * @return				its id, or NONE if there is no such package
+	 */
+	public int getPackageByName(String packageName) {
+		return this.topLevelPackages.getOrDefault(packageName, NONE);
+	}
+
+	/*
+	 * Returns every state in a state machine, including those in nested
+	 * regions
+	 */
+	public int[] getAllStatesFromStateMachine(int sm) {
+		return this.states[sm] == null ? EMPTY : this.states[sm].clone();
+	}
+
+	/*
+	 * Returns the state a state machine's initial pseudostate leads to, or
+	 * NONE if there isn't one
+	 */
+	public int getFirstState(int sm) {
+		return this.firstStates[sm];
+	}
+
+	/*
+	 * Returns the transitions in a state's region that lead to it
+	 *
+	 * @param s					a state
+	 * @param getPseudostates	whether to include transitions from
+	 * 							pseudostates
+	 * @return					transition ids, or null if the state isn't in
+	 * 							a region
+	 */
+	public int[] getTransitionsToState(int s, boolean getPseudostates) {
+		int[] result = getPseudostates ? this.incoming[s] : this.incomingFromStates[s];
+		return result == null ? null : result.clone();
+	}
+
+	/*
+	 * Returns the transitions in a state's region that leave it, or null if
+	 * the state isn't in a region
+	 */
+	public int[] getTransitionsFromState(int s) {
+		return this.outgoing[s] == null ? null : this.outgoing[s].clone();
+	}
+
+	public int getSource(int transition) {
+		return this.sources[transition];
+	}
+
+	public int getTarget(int transition) {
+		return this.targets[transition];
+	}
+
+	/*
+	 * Returns the name of the signal that triggers a transition, or null if
+	 * it isn't triggered by a signal
+	 */
+	public String getTransitionTrigger(int transition) {
+		return this.triggers[transition];
+	}
+
+	/*
+	 * Finds an element by its exact qualified name. Unlike
+	 * TraverseModel.findByQualifiedName, every segment must match.
+	 *
+	 * @param qualifiedName	a "::" separated qualified name
+	 * @return				the element's id, or NONE if there is none
+	 */
+	public int findByQualifiedName(String qualifiedName) {
+		return this.byQualifiedName.getOrDefault(qualifiedName, NONE);
+	}
+
+	/*
+	 * Returns the model element an id stands for, so that changes found by
+	 * reading the snapshot can be made to the model. Like the model itself,
+	 * the result may only be used on the thread that owns the model.
+	 */
+	public NamedElement getElement(int id) {
+		return this.elements[id];
+	}
+
+	private static Kind kind(NamedElement e) {
+		if (e instanceof Package) {
+			return Kind.PACKAGE;
+		} else if (e instanceof StateMachine) {
+			return Kind.STATE_MACHINE;
+		} else if (e instanceof Activity) {
+			return Kind.ACTIVITY;
+		} else if (e instanceof Region) {
+			return Kind.REGION;
+		} else if (e instanceof State) {
+			return Kind.STATE;
+		} else if (e instanceof Pseudostate) {
+			return Kind.PSEUDOSTATE;
+		} else if (e instanceof Transition) {
+			return Kind.TRANSITION;
+		}
+		return Kind.OTHER;
+	}
+
+	private static List<String> stereotypeNames(NamedElement e) {
+		List<String> result = new ArrayList<String>();
+		e.getAppliedStereotypes().forEach(s -> result.add(s.getName()));
+		return result;
+	}
+
+	private static String trigger(Transition t) {
+		if (t.getTriggers().isEmpty()) {
+			return null;
+		}
+		Trigger trigger = t.getTriggers().get(0);
+		if (trigger.getEvent() instanceof SignalEvent && ((SignalEvent) trigger.getEvent()).getSignal() != null) {
+			return ((SignalEvent) trigger.getEvent()).getSignal().getName();
+		}
+		return null;
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] result = new int[list.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = list.get(i);
+		}
+		return result;
+	}
+}
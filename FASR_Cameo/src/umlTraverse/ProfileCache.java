@@ -0,0 +1,134 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIHandler;
+import org.eclipse.emf.ecore.resource.impl.URIHandlerImpl;
+
+/*
+ * Keeps the contents of profile files in memory so that models loaded into
+ * separate ResourceSets only read each profile from disk once.
+ *
+ * Only the bytes are shared. Each ResourceSet still parses its own copy of
+ * the profiles, since UML2 elements are not safe to share between models
+ * that are being edited on different threads.
+ */
+public class ProfileCache extends URIHandlerImpl {
+	private static final String PROFILE_EXTENSION = ".profile.uml";
+
+	private Map<URI, byte[]> profiles;
+
+	/*
+	 * Class constructor
+	 */
+	public ProfileCache() {
+		this.profiles = new ConcurrentHashMap<URI, byte[]>();
+	}
+
+	/*
+	 * Adds this cache to a ResourceSet's URIConverter, ahead of the default
+	 * handlers
+	 *
+	 * @param converterHandlers	the URIConverter's handler list
+	 */
+	public void install(List<URIHandler> converterHandlers) {
+		if (!converterHandlers.contains(this)) {
+			converterHandlers.add(0, this);
+		}
+	}
+
+	/*
+	 * Returns the number of profiles currently held in memory
+	 *
+	 * @return	the number of cached profiles
+	 */
+	public int size() {
+		return this.profiles.size();
+	}
+
+	@Override
+	public boolean canHandle(URI uri) {
+		String last = uri.lastSegment();
+		return last != null && last.endsWith(PROFILE_EXTENSION) && delegate(uri) != null;
+	}
+
+	@Override
+	public InputStream createInputStream(URI uri, Map<?, ?> options) throws IOException {
+		byte[] bytes = this.profiles.get(uri);
+		if (bytes == null) {
+			try (InputStream in = delegate(uri).createInputStream(uri, options)) {
+				bytes = in.readAllBytes();
+			}
+			byte[] previous = this.profiles.putIfAbsent(uri, bytes);
+			if (previous != null) {
+				bytes = previous;
+			}
+		}
+		return new ByteArrayInputStream(bytes);
+	}
+
+	@Override
+	public OutputStream createOutputStream(URI uri, Map<?, ?> options) throws IOException {
+		// A profile is being rewritten, so the cached copy is stale
+		this.profiles.remove(uri);
+		return delegate(uri).createOutputStream(uri, options);
+	}
+
+	@Override
+	public void delete(URI uri, Map<?, ?> options) throws IOException {
+		this.profiles.remove(uri);
+		delegate(uri).delete(uri, options);
+	}
+
+	@Override
+	public boolean exists(URI uri, Map<?, ?> options) {
+		return this.profiles.containsKey(uri) || delegate(uri).exists(uri, options);
+	}
+
+	@Override
+	public Map<String, ?> getAttributes(URI uri, Map<?, ?> options) {
+		return delegate(uri).getAttributes(uri, options);
+	}
+
+	/*
+	 * Finds the default handler that would have handled the URI
+	 */
+	private URIHandler delegate(URI uri) {
+		for (URIHandler handler : URIHandler.DEFAULT_HANDLERS) {
+			if (handler.canHandle(uri)) {
+				return handler;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,196 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.Namespace;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.UMLPackage;
+
+/*
+ * Caches the result of resolving qualified names against a model.
+ *
+ * Resolving a name walks it segment by segment, and each segment is a linear
+ * scan of a namespace's owned members. Every cached result remembers the
+ * namespaces it consulted, and an adapter on those namespaces (and on their
+ * members) evicts the result when one of them gains, loses or reorders a
+ * member, or when one of their members is renamed. clear() detaches the
+ * adapter again, so a cache that is no longer used should be cleared.
+ */
+public class QualifiedNameCache extends AdapterImpl {
+	private Package root;
+	private Map<String, NamedElement> results;
+	// The cached qualified names that depend on each consulted namespace
+	private Map<Namespace, Set<String>> dependents;
+	// Everything the adapter is attached to, so it can be detached
+	private Set<Notifier> watched;
+
+	/*
+	 * Class constructor
+	 *
+	 * @param root	the package qualified names are resolved against
+	 */
+	public QualifiedNameCache(Package root) {
+		this.root = root;
+		this.results = new HashMap<String, NamedElement>();
+		this.dependents = new HashMap<Namespace, Set<String>>();
+		this.watched = new HashSet<Notifier>();
+	}
+
+	/*
+	 * Returns the package qualified names are resolved against
+	 *
+	 * @return	the root package
+	 */
+	public Package getRoot() {
+		return this.root;
+	}
+
+	/*
+	 * Finds a NamedElement by its qualified name, resolving it against the
+	 * model only if it isn't already cached
+	 *
+	 * @param qualifiedName	a "::" separated qualified name
+	 * @return				the named element, or null if it wasn't found
+	 */
+	public NamedElement find(String qualifiedName) {
+		if (this.results.containsKey(qualifiedName)) {
+			return this.results.get(qualifiedName);
+		}
+		List<Namespace> consulted = new ArrayList<Namespace>();
+		NamedElement result = resolve(qualifiedName, consulted);
+		this.results.put(qualifiedName, result);
+		for (Namespace n : consulted) {
+			this.dependents.computeIfAbsent(n, k -> new HashSet<String>()).add(qualifiedName);
+			watch(n);
+		}
+		return result;
+	}
+
+	/*
+	 * Discards every cached result and stops watching the model
+	 */
+	public void clear() {
+		this.results.clear();
+		this.dependents.clear();
+		for (Notifier n : this.watched) {
+			n.eAdapters().remove(this);
+		}
+		this.watched.clear();
+	}
+
+	/*
+	 * Walks the qualified name from the root, recording every namespace whose
+	 * members were searched
+	 */
+	private NamedElement resolve(String qualifiedName, List<Namespace> consulted) {
+		String[] segments = qualifiedName.split("::");
+		Namespace current = root;
+		consulted.add(root);
+
+		if (!qualifiedName.contains("::")) {
+			return root.getOwnedMember(qualifiedName);
+		}
+
+		// traverse through qualified name searching root for ownedMember
+		// if ownedMember is found, search its ownedMembers for matching NamedElement
+		for (int i = 0; i < segments.length; i++) {
+			NamedElement next = current.getOwnedMember(segments[i]);
+			if (next instanceof Namespace) {
+				current = (Namespace) next;
+				consulted.add(current);
+			} else if (i == segments.length - 1) {
+				return next;
+			}
+		}
+		if (current == root) {
+			return null;
+		}
+		return (NamedElement) current;
+	}
+
+	/*
+	 * Attaches this adapter to a consulted namespace and its current members
+	 */
+	private void watch(Namespace n) {
+		attach(n);
+		for (NamedElement member : n.getOwnedMembers()) {
+			attach(member);
+		}
+	}
+
+	private void attach(Notifier n) {
+		if (this.watched.add(n)) {
+			n.eAdapters().add(this);
+		}
+	}
+
+	/*
+	 * Evicts every cached result that consulted the given namespace
+	 */
+	private void evict(Object namespace) {
+		Set<String> keys = this.dependents.remove(namespace);
+		if (keys != null) {
+			this.results.keySet().removeAll(keys);
+		}
+	}
+
+	@Override
+	public void notifyChanged(Notification n) {
+		if (n.isTouch()) {
+			return;
+		}
+		Object feature = n.getFeature();
+		if (feature == UMLPackage.Literals.NAMED_ELEMENT__NAME && n.getNotifier() instanceof EObject) {
+			// A member was renamed, so lookups in its namespace may now differ
+			evict(((EObject) n.getNotifier()).eContainer());
+		} else if (feature instanceof EReference && ((EReference) feature).isContainment()) {
+			// A member was added, moved or removed (including by deletion)
+			evict(n.getNotifier());
+			if (n.getNewValue() instanceof NamedElement) {
+				// New members need watching for renames too
+				attach((Notifier) n.getNewValue());
+			} else if (n.getNewValue() instanceof Collection) {
+				for (Object o : (Collection<?>) n.getNewValue()) {
+					if (o instanceof NamedElement) {
+						attach((Notifier) o);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,270 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+
+/*
+ * Searches the synchronous product of a Machine and its Environment for
+ * deviating environment behavior that drives the machine into a violating
+ * state.
+ *
+ * The environment drives the machine: the two move together on the signals
+ * they share, each moves alone on its silent transitions, and environment
+ * signals the machine doesn't use leave it where it is.
+ * On top of its normal behavior the environment may deviate in two ways: it
+ * may delay, emitting an extra "Wait", or it may skip one of its actions, so
+ * that the machine never sees it. Each violating product state found is
+ * reported as a pair of traces: the environment's normal behavior (goodTrace)
+ * and the deviating behavior that reached the violation (badTrace), in the
+ * shape Fortis reports them.
+ *
+ * The search is breadth first, so each violation is reported with the
+ * fewest steps that reach it. Product states are packed into longs, and
+ * each level of the search is expanded in parallel on a ForkJoinPool.
+ */
+public class RobustnessSearch {
+	private static final int STATE_BITS = 28;
+	private static final int DEVIATION_BITS = 7;
+	private static final long STATE_MASK = (1L << STATE_BITS) - 1;
+	private static final long PAIR_MASK = (1L << (2 * STATE_BITS)) - 1;
+
+	// How the environment took a step
+	private static final int NORMAL = 0;
+	private static final int DELAY = 1;
+	private static final int SKIP = 2;
+	private static final int SILENT = 3;
+
+	// The step that first reached a product state
+	private record Step(long parent, int label, int kind) {
+	}
+
+	private record Successor(long state, Step step) {
+	}
+
+	private static final Step ROOT = new Step(-1, TraceAutomaton.SILENT, SILENT);
+
+	private TraceAutomaton machine;
+	private TraceAutomaton environment;
+	private BitSet violating;
+	private String component;
+	private String invariant;
+	// The machine's id for each environment signal, or SILENT if the machine
+	// doesn't use it
+	private int[] shared;
+	private int machineWait;
+
+	/*
+	 * Class constructor
+	 *
+	 * @param machine		the compiled Machine
+	 * @param environment	the compiled Environment
+	 * @param violating		machine states that violate the invariant
+	 * @param component		the name reported as the violating component
+	 * @param invariant		the name reported as the violated invariant
+	 */
+	public RobustnessSearch(TraceAutomaton machine, TraceAutomaton environment, BitSet violating, String component,
+			String invariant) {
+		if (machine.getStateCount() > STATE_MASK || environment.getStateCount() > STATE_MASK) {
+			throw new IllegalArgumentException("Automata are limited to " + STATE_MASK + " states");
+		}
+		this.machine = machine;
+		this.environment = environment;
+		this.violating = violating;
+		this.component = component;
+		this.invariant = invariant;
+		this.shared = new int[environment.getSignalCount()];
+		for (int l = 0; l < this.shared.length; l++) {
+			this.shared[l] = machine.getSignalId(environment.getSignal(l));
+		}
+		this.machineWait = machine.getSignalId(TraceAutomatonCompiler.WAIT);
+	}
+
+	/*
+	 * Searches for deviations that lead to a violation
+	 *
+	 * @param maxDepth		the most steps to search
+	 * @param maxDeviations	the most deviations allowed in one trace
+	 * @param maxPairs		stop once this many violations have been found
+	 * @return				a trace pair for each violating product state
+	 * 						found, shortest first
+	 */
+	public List<TracePair> search(int maxDepth, int maxDeviations, int maxPairs) {
+		if (maxDeviations >= 1 << DEVIATION_BITS) {
+			throw new IllegalArgumentException("At most " + ((1 << DEVIATION_BITS) - 1) + " deviations are supported");
+		}
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			return search(pool, maxDepth, maxDeviations, maxPairs);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private List<TracePair> search(ForkJoinPool pool, int maxDepth, int maxDeviations, int maxPairs) {
+		List<TracePair> pairs = new ArrayList<TracePair>();
+		// Only written between levels, so the workers can read it freely
+		Map<Long, Step> visited = new HashMap<Long, Step>();
+		Set<Long> reported = new HashSet<Long>();
+		long start = pack(this.machine.getInitialState(), this.environment.getInitialState(), 0);
+		visited.put(start, ROOT);
+		List<Long> frontier = List.of(start);
+
+		for (int depth = 0; depth < maxDepth && !frontier.isEmpty() && pairs.size() < maxPairs; depth++) {
+			List<Long> current = frontier;
+			List<Successor> next = pool.submit(() -> current.parallelStream()
+					.flatMap(s -> successors(s, maxDeviations, visited).stream())
+					.collect(Collectors.toList())).join();
+
+			// States are claimed in a fixed order, so the traces reported don't
+			// depend on how the work was scheduled
+			frontier = new ArrayList<Long>();
+			for (Successor s : next) {
+				if (visited.putIfAbsent(s.state, s.step) != null) {
+					continue;
+				}
+				if (this.violating.get(machineState(s.state))) {
+					if (deviations(s.state) > 0 && pairs.size() < maxPairs && reported.add(s.state & PAIR_MASK)) {
+						pairs.add(toPair(s.state, visited));
+					}
+					continue;
+				}
+				frontier.add(s.state);
+			}
+		}
+		return pairs;
+	}
+
+	private List<Successor> successors(long state, int maxDeviations, Map<Long, Step> visited) {
+		int m = machineState(state);
+		int e = environmentState(state);
+		int d = deviations(state);
+		List<Successor> result = new ArrayList<Successor>();
+
+		for (int i = 0; i < this.machine.getOutDegree(m); i++) {
+			if (this.machine.getLabel(m, i) == TraceAutomaton.SILENT) {
+				add(result, visited, pack(this.machine.getTarget(m, i), e, d), state, TraceAutomaton.SILENT, SILENT);
+			}
+		}
+		for (int i = 0; i < this.environment.getOutDegree(e); i++) {
+			int label = this.environment.getLabel(e, i);
+			int target = this.environment.getTarget(e, i);
+			if (label == TraceAutomaton.SILENT) {
+				add(result, visited, pack(m, target, d), state, label, SILENT);
+				continue;
+			}
+			boolean wait = TraceAutomatonCompiler.WAIT.equals(this.environment.getSignal(label));
+			for (int next : machineMoves(m, this.shared[label], wait)) {
+				add(result, visited, pack(next, target, d), state, label, NORMAL);
+			}
+			if (d < maxDeviations && !wait) {
+				// The environment skips the action; the machine never sees it
+				add(result, visited, pack(m, target, d + 1), state, label, SKIP);
+			}
+		}
+		if (d < maxDeviations) {
+			// The environment delays; the machine may take a time event
+			for (int next : machineMoves(m, this.machineWait, true)) {
+				add(result, visited, pack(next, e, d + 1), state, TraceAutomaton.SILENT, DELAY);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Returns the machine states reachable from m on a signal. Signals the
+	 * machine doesn't use leave it where it is, as does a delay it has no
+	 * time event for.
+	 */
+	private List<Integer> machineMoves(int m, int label, boolean delay) {
+		if (label == TraceAutomaton.SILENT) {
+			return List.of(m);
+		}
+		List<Integer> moves = new ArrayList<Integer>();
+		for (int i = 0; i < this.machine.getOutDegree(m); i++) {
+			if (this.machine.getLabel(m, i) == label) {
+				moves.add(this.machine.getTarget(m, i));
+			}
+		}
+		if (moves.isEmpty() && delay) {
+			moves.add(m);
+		}
+		return moves;
+	}
+
+	private static void add(List<Successor> result, Map<Long, Step> visited, long next, long parent, int label,
+			int kind) {
+		if (!visited.containsKey(next)) {
+			result.add(new Successor(next, new Step(parent, label, kind)));
+		}
+	}
+
+	/*
+	 * Rebuilds the normal and deviating traces that reached a state
+	 */
+	private TracePair toPair(long state, Map<Long, Step> visited) {
+		LinkedList<String> good = new LinkedList<String>();
+		LinkedList<String> bad = new LinkedList<String>();
+		for (Step step = visited.get(state); step != ROOT; step = visited.get(step.parent)) {
+			if (step.kind == NORMAL || step.kind == SKIP) {
+				good.addFirst(this.environment.getSignal(step.label));
+			}
+			if (step.kind == NORMAL) {
+				bad.addFirst(this.environment.getSignal(step.label));
+			} else if (step.kind == DELAY) {
+				bad.addFirst(TraceAutomatonCompiler.WAIT);
+			}
+		}
+		return new TracePair(Collections.unmodifiableList(good), Collections.unmodifiableList(bad),
+				List.of(this.component), List.of(this.invariant));
+	}
+
+	private static long pack(int m, int e, int d) {
+		return ((long) d << (2 * STATE_BITS)) | ((long) e << STATE_BITS) | m;
+	}
+
+	private static int machineState(long state) {
+		return (int) (state & STATE_MASK);
+	}
+
+	private static int environmentState(long state) {
+		return (int) ((state >>> STATE_BITS) & STATE_MASK);
+	}
+
+	private static int deviations(long state) {
+		return (int) (state >>> (2 * STATE_BITS));
+	}
+}
@@ -0,0 +1,274 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMIResource;
+import org.eclipse.uml2.uml.Activity;
+import org.eclipse.uml2.uml.ActivityEdge;
+import org.eclipse.uml2.uml.ActivityNode;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.Profile;
+import org.eclipse.uml2.uml.Pseudostate;
+import org.eclipse.uml2.uml.PseudostateKind;
+import org.eclipse.uml2.uml.Region;
+import org.eclipse.uml2.uml.SendSignalAction;
+import org.eclipse.uml2.uml.Signal;
+import org.eclipse.uml2.uml.SignalEvent;
+import org.eclipse.uml2.uml.StateMachine;
+import org.eclipse.uml2.uml.Stereotype;
+import org.eclipse.uml2.uml.Transition;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.eclipse.uml2.uml.Vertex;
+import org.eclipse.uml2.uml.resources.util.UMLResourcesUtil;
+
+/*
+ * Builds large, valid models for stress-testing loading, traversal and
+ * generation, since the example models are far smaller than real projects.
+ *
+ * A generated model has the same structure as an exported Cameo project, as
+ * far as FASR is concerned: packages of Machine state machines, whose
+ * transitions are triggered by signals, and Environment activities that send
+ * those signals, plus the STPA Library that SysMLGenerator generalizes UCAs
+ * from. The FASR, STPA and Core profiles are applied to the model, and the
+ * saved file refers to the existing profile files rather than copying them.
+ *
+ * The same shape and seed always give the same model.
+ */
+public class SyntheticModelGenerator {
+	// The profiles a model needs, relative to the profile directory
+	private static final String FASR_PROFILE = "FASR_Profile.profile.uml";
+	private static final String[] PROFILES = { FASR_PROFILE, "STPA_Profile.profile.uml", "Core_Profile.profile.uml" };
+	private static final String SIGNAL_PACKAGE = "Signals";
+
+	/*
+	 * The size of a generated model
+	 *
+	 * @param packages					packages of behaviors
+	 * @param machinesPerPackage		Machine state machines in each package
+	 * @param environmentsPerPackage	Environment activities in each package
+	 * @param statesPerMachine			states in each state machine
+	 * @param transitionsPerState		signal-triggered transitions leaving
+	 * 									each state
+	 * @param actionsPerEnvironment		signals each activity sends, in sequence
+	 * @param signals					signals shared by the whole model
+	 */
+	public record Shape(int packages, int machinesPerPackage, int environmentsPerPackage, int statesPerMachine,
+			int transitionsPerState, int actionsPerEnvironment, int signals) {
+
+		/*
+		 * Returns a shape with about the given number of elements, made by
+		 * varying the number of packages of a fixed size
+		 */
+		public static Shape ofSize(long elements) {
+			Shape one = new Shape(1, 5, 5, 20, 2, 20, 50);
+			long perPackage = one.elementCount() - one.fixedElementCount();
+			long packages = Math.max(1, (elements - one.fixedElementCount() + perPackage - 1) / perPackage);
+			return new Shape((int) packages, 5, 5, 20, 2, 20, 50);
+		}
+
+		/*
+		 * Returns the number of UML elements a model of this shape contains,
+		 * not counting stereotype applications
+		 */
+		public long elementCount() {
+			long machine = 4 + statesPerMachine + 2L * statesPerMachine * transitionsPerState;
+			long environment = 4 + 2L * actionsPerEnvironment;
+			return fixedElementCount()
+					+ (long) packages * (1 + machinesPerPackage * machine + environmentsPerPackage * environment);
+		}
+
+		// The library, the signals and their events
+		private long fixedElementCount() {
+			return 2 + SysMLGenerator.GUIDEWORD_CLASSES.size() + 1 + 2L * signals;
+		}
+	}
+
+	private String profileDirectory;
+	private long seed;
+
+	/*
+	 * Class constructor
+	 *
+	 * @param profileDirectory	the directory holding the FASR, STPA and Core
+	 * 							profiles, eg the Diagrams directory
+	 * @param seed				seeds the choice of transition targets and
+	 * 							signals
+	 */
+	public SyntheticModelGenerator(String profileDirectory, long seed) {
+		this.profileDirectory = profileDirectory;
+		this.seed = seed;
+	}
+
+	/*
+	 * Generates a model and saves it as XMI
+	 *
+	 * @param shape	the size of the model
+	 * @param path	the file to save the model to
+	 * @return		the generated model
+	 */
+	public Model generate(Shape shape, String path) throws IOException {
+		ResourceSet resources = new ResourceSetImpl();
+		synchronized (TraverseModel.class) {
+			UMLResourcesUtil.init(resources);
+		}
+		Map<String, Profile> profiles = new HashMap<String, Profile>();
+		for (String file : PROFILES) {
+			URI uri = URI.createFileURI(new File(this.profileDirectory, file).getAbsolutePath());
+			Resource r = resources.getResource(uri, true);
+			profiles.put(file, (Profile) EcoreUtil.getObjectByType(r.getContents(), UMLPackage.Literals.PROFILE));
+		}
+
+		// Stereotypes can only be applied to elements that are in a resource
+		Resource resource = resources.createResource(URI.createFileURI(new File(path).getAbsolutePath()));
+		Model model = UMLFactory.eINSTANCE.createModel();
+		model.setName("Model");
+		resource.getContents().add(model);
+		for (Profile profile : profiles.values()) {
+			model.applyProfile(profile);
+		}
+		Stereotype machine = profiles.get(FASR_PROFILE).getOwnedStereotype("Machine");
+		Stereotype environment = profiles.get(FASR_PROFILE).getOwnedStereotype("Environment");
+
+		createLibrary(model);
+		Package signalPackage = model.createNestedPackage(SIGNAL_PACKAGE);
+		List<Signal> signals = new ArrayList<Signal>(shape.signals());
+		List<SignalEvent> events = new ArrayList<SignalEvent>(shape.signals());
+		for (int i = 0; i < shape.signals(); i++) {
+			Signal signal = (Signal) signalPackage.createPackagedElement("Signal" + i, UMLPackage.Literals.SIGNAL);
+			SignalEvent event = (SignalEvent) signalPackage.createPackagedElement("Signal" + i + "Event",
+					UMLPackage.Literals.SIGNAL_EVENT);
+			event.setSignal(signal);
+			signals.add(signal);
+			events.add(event);
+		}
+
+		Random random = new Random(this.seed);
+		for (int p = 0; p < shape.packages(); p++) {
+			Package pkg = model.createNestedPackage("Package" + p);
+			for (int m = 0; m < shape.machinesPerPackage(); m++) {
+				StateMachine sm = createMachine(pkg, "Machine" + p + "_" + m, shape, events, random);
+				sm.applyStereotype(machine);
+			}
+			for (int e = 0; e < shape.environmentsPerPackage(); e++) {
+				Activity a = createEnvironment(pkg, "Environment" + p + "_" + e, shape, signals, random);
+				a.applyStereotype(environment);
+			}
+		}
+
+		Map<String, Object> options = new HashMap<String, Object>();
+		options.put(XMIResource.OPTION_ENCODING, "UTF-8");
+		options.put(XMIResource.OPTION_SCHEMA_LOCATION, Boolean.TRUE);
+		resource.save(options);
+		return model;
+	}
+
+	/*
+	 * Creates the STPA Library classes at the qualified names SysMLGenerator
+	 * looks them up by
+	 */
+	private static void createLibrary(Model model) {
+		String[] path = SysMLGenerator.LIBRARY.split("::");
+		// The first segment is the model itself
+		Package library = model;
+		for (int i = 1; i < path.length; i++) {
+			library = library.createNestedPackage(path[i]);
+		}
+		for (String qualifiedName : SysMLGenerator.GUIDEWORD_CLASSES.values()) {
+			library.createOwnedClass(qualifiedName.substring(SysMLGenerator.LIBRARY.length()), false);
+		}
+	}
+
+	/*
+	 * Creates a state machine whose states each have signal-triggered
+	 * transitions to randomly chosen states
+	 */
+	private static StateMachine createMachine(Package pkg, String name, Shape shape, List<SignalEvent> events,
+			Random random) {
+		StateMachine sm = (StateMachine) pkg.createPackagedElement(name, UMLPackage.Literals.STATE_MACHINE);
+		Region region = sm.createRegion(name + " Region");
+		Pseudostate initial = (Pseudostate) region.createSubvertex("Initial", UMLPackage.Literals.PSEUDOSTATE);
+		initial.setKind(PseudostateKind.INITIAL_LITERAL);
+		List<Vertex> states = new ArrayList<Vertex>(shape.statesPerMachine());
+		for (int s = 0; s < shape.statesPerMachine(); s++) {
+			states.add(region.createSubvertex("State" + s, UMLPackage.Literals.STATE));
+		}
+		if (states.isEmpty()) {
+			return sm;
+		}
+		Transition start = region.createTransition(null);
+		start.setSource(initial);
+		start.setTarget(states.get(0));
+		for (Vertex source : states) {
+			for (int t = 0; t < shape.transitionsPerState(); t++) {
+				Transition transition = region.createTransition(null);
+				transition.setSource(source);
+				transition.setTarget(states.get(random.nextInt(states.size())));
+				if (!events.isEmpty()) {
+					transition.createTrigger(null).setEvent(events.get(random.nextInt(events.size())));
+				}
+			}
+		}
+		return sm;
+	}
+
+	/*
+	 * Creates an activity that sends a sequence of randomly chosen signals
+	 */
+	private static Activity createEnvironment(Package pkg, String name, Shape shape, List<Signal> signals,
+			Random random) {
+		Activity a = (Activity) pkg.createPackagedElement(name, UMLPackage.Literals.ACTIVITY);
+		ActivityNode previous = a.createOwnedNode("Initial", UMLPackage.Literals.INITIAL_NODE);
+		for (int i = 0; i < shape.actionsPerEnvironment() && !signals.isEmpty(); i++) {
+			Signal signal = signals.get(random.nextInt(signals.size()));
+			SendSignalAction send = (SendSignalAction) a.createOwnedNode(signal.getName(),
+					UMLPackage.Literals.SEND_SIGNAL_ACTION);
+			send.setSignal(signal);
+			connect(a, previous, send);
+			previous = send;
+		}
+		connect(a, previous, a.createOwnedNode("Final", UMLPackage.Literals.ACTIVITY_FINAL_NODE));
+		return a;
+	}
+
+	private static void connect(Activity a, ActivityNode source, ActivityNode target) {
+		ActivityEdge edge = a.createEdge(null, UMLPackage.Literals.CONTROL_FLOW);
+		edge.setSource(source);
+		edge.setTarget(target);
+	}
+}
@@ -23,143 +23,304 @@
 
 package umlTraverse;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.uml2.uml.Package;
 import org.eclipse.uml2.uml.Signal;
-import org.eclipse.emf.ecore.EObject;
-import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Classifier;
 import org.eclipse.uml2.uml.Dependency;
+import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.NamedElement;
-import org.eclipse.uml2.uml.Namespace;
+import org.eclipse.uml2.uml.PackageableElement;
 import org.eclipse.uml2.uml.Stereotype;
 import org.eclipse.uml2.uml.UMLFactory;
 
-//import ucaClassification.DamerauLevenshteinClassifier.Guideword;
+import ucaClassification.DamerauLevenshteinClassifier.Guideword;
 import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
 
 public class SysMLGenerator {
-	private List<UnsafeControlAction> actionList;
+	public static final String GENERATED_PACKAGE = "Generated RAAML Package";
+	static final String LIBRARY = "Model::CMOF 2.0 Validation::STPA Library::";
+	private static final String UCA_STEREOTYPE = "STPA Profile::UnsafeControlAction";
+	private static final String CONTROL_ACTION_STEREOTYPE = "STPA Profile::ControlAction";
+	private static final String RELEVANT_TO_STEREOTYPE = "Core Profile::RelevantTo";
+	
+	// Qualified name of the STPA Library class each Guideword generalizes
+	static final Map<Guideword, String> GUIDEWORD_CLASSES = new EnumMap<Guideword, String>(Guideword.class);
+	static {
+		GUIDEWORD_CLASSES.put(Guideword.PROVIDING, LIBRARY + "Provided");
+		GUIDEWORD_CLASSES.put(Guideword.NOT_PROVIDING, LIBRARY + "NotProvided");
+		GUIDEWORD_CLASSES.put(Guideword.TOO_EARLY, LIBRARY + "Early");
+		GUIDEWORD_CLASSES.put(Guideword.TOO_LATE, LIBRARY + "Late");
+		GUIDEWORD_CLASSES.put(Guideword.OUT_OF_SEQUENCE, LIBRARY + "OutOfSequence");
+		GUIDEWORD_CLASSES.put(Guideword.APPLIED_TOO_LONG, LIBRARY + "TooLong");
+		GUIDEWORD_CLASSES.put(Guideword.STOPPED_TOO_SOON, LIBRARY + "TooShort");
+	}
+	
+	private Iterable<UnsafeControlAction> actionList;
 	TraverseModel tm;
 	
+	// Lookup tables that are filled in once per call to generateElements()
+	private Map<Guideword, Class> guidewordClasses;
+	private Map<String, Stereotype> stereotypes;
+	private Map<String, Signal> signals;
+	
 	public SysMLGenerator(List<UnsafeControlAction> actionList, TraverseModel tm) {
 		this.actionList = actionList;
 		this.tm = tm;
 	}
 	
 	public SysMLGenerator(UnsafeControlAction action, TraverseModel tm) {
-		this.actionList = new ArrayList<UnsafeControlAction>();
-		this.actionList.add(action);
+		List<UnsafeControlAction> actions = new ArrayList<UnsafeControlAction>();
+		actions.add(action);
+		this.actionList = actions;
+		this.tm = tm;
+	}
+	
+	/*
+	 * Class constructor for streamed UCAs. Each UCA is applied to the model as
+	 * the iterator produces it, so the actions are consumed by a single call to
+	 * generateElements().
+	 * 
+	 * @param actions	the UCAs to generate elements for, eg from a UCAPipeline
+	 * @param tm		the model to add the elements to
+	 */
+	public SysMLGenerator(Iterator<UnsafeControlAction> actions, TraverseModel tm) {
+		this.actionList = () -> actions;
 		this.tm = tm;
 	}
 	
 	public NamedElement findByQualifiedName(String qualifiedName) {
-		Package root = tm.getModel();
-		String[] segments = qualifiedName.split("::");
-	    Namespace current = root;
-	    
-	    if (qualifiedName == null || !qualifiedName.contains("::")) {
-	        return root.getOwnedMember(qualifiedName);
-	    }
-	    
-	    // traverse through qualified name searching root for ownedMember
-	    // if ownedMember is found, search its ownedMembers for matching NamedElement
-	    for (int i = 0; i < segments.length; i++) {
-	        NamedElement next = current.getOwnedMember(segments[i]);
-	        if (next instanceof Namespace) {
-	            current = (Namespace) next;
-	        } else if (i == segments.length - 1) {
-	            return next;
-	        }
-	    }
-	    if(current == root) {
-	    	return null;
-	    }
-	    return (NamedElement) current;
+		// Resolution is cached by the TraverseModel so it can be shared
+		return tm.findByQualifiedName(qualifiedName);
 	}
 	
 	public Package generateElements() {
+		ModelEvents.Generate event = new ModelEvents.Generate();
+		event.begin();
 		// Used to create signals
 		UMLFactory factory = UMLFactory.eINSTANCE;
 		// Check if package has already been generated
-		// If so, remove it
-		EObject oldPkg = tm.getModel().getOwnedMember("TestingPackage");
-		if (oldPkg instanceof Package) {
-		    EcoreUtil.delete(oldPkg, true);
+		// If so, remove it. destroy() finds the references to remove through
+		// UML2's inverse reference cache rather than scanning the ResourceSet.
+		Package oldPkg = tm.getPackageByName(GENERATED_PACKAGE);
+		if (oldPkg != null) {
+		    oldPkg.destroy();
 		}
 
 		// Create package and add it to model
 		Package p = factory.createPackage();
-		p.setName("Generated RAAML Package");
+		p.setName(GENERATED_PACKAGE);
 		this.tm.getModel().getPackagedElements().add(p);
-		Class keyword;
+		
+		// Resolve the lookup tables once per run rather than once per UCA
+		resolveGuidewordClasses();
+		this.stereotypes = new HashMap<String, Stereotype>();
+		this.signals = new HashMap<String, Signal>();
+		
 		for(UnsafeControlAction u : this.actionList) {
-			String newContext = String.join("->", u.context());
-			// Create class that will be the block for UnsafeControlAction
-			Class c = p.createOwnedClass(newContext, false);
-			p.getPackagedElements().add(c);
-			Stereotype st = c.getApplicableStereotype("STPA Profile::UnsafeControlAction");
-			c.applyStereotype(st);
-				
-			// Create signal (ControlAction) and correctly stereotype it
-			Signal signal = p.getPackagedElements().stream()
-					.filter(Signal.class::isInstance)
-					.map(Signal.class::cast)
-					.filter(s -> u.controlAction().equals(s.getName()))
-					.findFirst() // if signal exists, then use this
-					.orElseGet(() -> factory.createSignal()); // create the signal
-			signal.setName(u.controlAction());
-			p.getPackagedElements().add(signal);
-			Stereotype singalStereotype = signal.getApplicableStereotype("STPA Profile::ControlAction");
-			signal.getApplicableStereotypes();
-			// if the signal previously existed, then you cannot re-apply a stereotype
-			try {
-				signal.applyStereotype(singalStereotype);
-			} catch (IllegalArgumentException e) {
-				System.out.println(signal.getName() + "Already exists");
+			generateElement(u, p, factory);
+			event.ucas++;
+		}
+		commit(event, p, false);
+		return p;
+	}
+	
+	/*
+	 * Brings a previously generated package in line with the UCAs, rather than
+	 * regenerating it. Blocks whose UCA is still present are left untouched,
+	 * blocks for new UCAs are added, and blocks (and control action signals) 
+	 * that no longer correspond to a UCA are removed, so the work done is 
+	 * proportional to the change rather than to the size of the model.
+	 * 
+	 * Falls back to generateElements() if nothing has been generated yet.
+	 * 
+	 * @return	the updated package
+	 */
+	public Package updateElements() {
+		Package p = tm.getPackageByName(GENERATED_PACKAGE);
+		if (p == null) {
+			return generateElements();
+		}
+		ModelEvents.Generate event = new ModelEvents.Generate();
+		event.begin();
+		UMLFactory factory = UMLFactory.eINSTANCE;
+		resolveGuidewordClasses();
+		Map<Class, Guideword> guidewords = new HashMap<Class, Guideword>();
+		for(Map.Entry<Guideword, Class> entry : this.guidewordClasses.entrySet()) {
+			guidewords.put(entry.getValue(), entry.getKey());
+		}
+		this.stereotypes = new HashMap<String, Stereotype>();
+		this.signals = new HashMap<String, Signal>();
+		
+		// Index the existing blocks by the UCA they were generated from. UCAs
+		// that differ only in their violating components or invariants share a
+		// key, and each of them has its own block, so each UCA uses up one.
+		Map<String, Deque<Class>> existing = new HashMap<String, Deque<Class>>();
+		List<Class> stale = new ArrayList<Class>();
+		for(PackageableElement e : p.getPackagedElements()) {
+			if(e instanceof Signal) {
+				this.signals.put(e.getName(), (Signal) e);
+			} else if(e instanceof Class) {
+				String key = getKey((Class) e, guidewords);
+				if(key == null) {
+					stale.add((Class) e);
+				} else {
+					existing.computeIfAbsent(key, k -> new ArrayDeque<Class>()).add((Class) e);
+				}
+			}
+		}
+		
+		for(UnsafeControlAction u : this.actionList) {
+			event.ucas++;
+			String key = getKey(String.join("->", u.context()), u.controlAction(), u.guideword());
+			// Anything left in the index afterwards is no longer a UCA
+			Deque<Class> blocks = existing.get(key);
+			if(blocks == null || blocks.poll() == null) {
+				generateElement(u, p, factory);
+			}
+		}
+		
+		for(Deque<Class> blocks : existing.values()) {
+			stale.addAll(blocks);
+		}
+		for(Class c : stale) {
+			for(Dependency d : new ArrayList<Dependency>(c.getClientDependencies())) {
+				d.destroy();
+			}
+			c.destroy();
+		}
+		
+		// Remove control actions that no remaining block depends on
+		Set<NamedElement> suppliers = new HashSet<NamedElement>();
+		for(PackageableElement e : p.getPackagedElements()) {
+			if(e instanceof Dependency) {
+				suppliers.addAll(((Dependency) e).getSuppliers());
+			}
+		}
+		for(Signal signal : this.signals.values()) {
+			if(!suppliers.contains(signal)) {
+				signal.destroy();
 			}
+		}
+		commit(event, p, true);
+		return p;
+	}
+	
+	/*
+	 * Records how long generating a package took, if a recording wants it
+	 */
+	private static void commit(ModelEvents.Generate event, Package p, boolean incremental) {
+		event.end();
+		if(event.shouldCommit()) {
+			event.elements = TraverseModel.countElements(p.eAllContents());
+			event.incremental = incremental;
+			event.commit();
+		}
+	}
+	
+	/*
+	 * Creates the block, control action, dependency and generalization for a 
+	 * single UCA
+	 */
+	private void generateElement(UnsafeControlAction u, Package p, UMLFactory factory) {
+		String newContext = String.join("->", u.context());
+		// Create class that will be the block for UnsafeControlAction
+		// createOwnedClass already adds it to the package's packaged elements
+		Class c = p.createOwnedClass(newContext, false);
+		c.applyStereotype(getStereotype(c, UCA_STEREOTYPE));
 			
+		// Create signal (ControlAction) and correctly stereotype it, or reuse
+		// the signal from an earlier UCA with the same control action
+		Signal signal = this.signals.get(u.controlAction());
+		if(signal == null) {
+			signal = factory.createSignal();
+			signal.setName(u.controlAction());
+			p.getPackagedElements().add(signal);
+			signal.applyStereotype(getStereotype(signal, CONTROL_ACTION_STEREOTYPE));
+			this.signals.put(u.controlAction(), signal);
+		}
 
-			// Create connection from UnsafeControlAction to ControlAction
-			Dependency d = c.createDependency(signal);
-			d.setName(signal.getName() + "_dependency");
-			Stereotype relventTo = d.getApplicableStereotype("Core Profile::RelevantTo");
-			d.applyStereotype(relventTo);
-				
-			// Switch statement that will create the connection from our UnsafeControlAction to the correct UCA Guideword 
-			switch(u.guideword()) {
-				case PROVIDING:
-					keyword = (Class) findByQualifiedName("Model::CMOF 2.0 Validation::STPA Library::Provided");
-					break;
-				case NOT_PROVIDING:
-					keyword = (Class) findByQualifiedName("Model::CMOF 2.0 Validation::STPA Library::NotProvided");
-					break;
-				case TOO_EARLY:
-					keyword = (Class) findByQualifiedName("Model::CMOF 2.0 Validation::STPA Library::Early");
-					break;
-				case TOO_LATE:
-					keyword = (Class) findByQualifiedName("Model::CMOF 2.0 Validation::STPA Library::Late");
-					break;
-				case OUT_OF_SEQUENCE:
-					keyword = (Class) findByQualifiedName("Model::CMOF 2.0 Validation::STPA Library::OutOfSequence");
-					break;
-				case APPLIED_TOO_LONG:
-					keyword = (Class) findByQualifiedName("Model::CMOF 2.0 Validation::STPA Library::TooLong");
-					break;
-				case STOPPED_TOO_SOON:
-					keyword = (Class) findByQualifiedName("Model::CMOF 2.0 Validation::STPA Library::TooShort");
-					break;
-				default:
-					keyword = null;
-					break;
+		// Create connection from UnsafeControlAction to ControlAction
+		Dependency d = c.createDependency(signal);
+		d.setName(signal.getName() + "_dependency");
+		d.applyStereotype(getStereotype(d, RELEVANT_TO_STEREOTYPE));
+			
+		// Create the connection from our UnsafeControlAction to the correct UCA Guideword 
+		Class keyword = this.guidewordClasses.get(u.guideword());
+		if(keyword == null) {
+			throw new NullPointerException("STPA Library was not found!");
+		}
+		c.createGeneralization(keyword);
+	}
+	
+	/*
+	 * Returns the key identifying the UCA a generated block was made from, or
+	 * null if the block isn't one this class would have generated
+	 */
+	private String getKey(Class c, Map<Class, Guideword> guidewords) {
+		Guideword guideword = null;
+		for(Classifier general : c.getGenerals()) {
+			if(guidewords.containsKey(general)) {
+				guideword = guidewords.get(general);
 			}
-			if(keyword == null) {
-				throw new NullPointerException("STPA Library was not found!");
+		}
+		String controlAction = null;
+		for(Dependency d : c.getClientDependencies()) {
+			for(NamedElement supplier : d.getSuppliers()) {
+				if(supplier instanceof Signal) {
+					controlAction = supplier.getName();
+				}
 			}
-			c.createGeneralization(keyword);
 		}
-		return p;
+		if(guideword == null || controlAction == null) {
+			return null;
+		}
+		return getKey(c.getName(), controlAction, guideword);
+	}
+	
+	private static String getKey(String context, String controlAction, Guideword guideword) {
+		return guideword + "|" + controlAction + "|" + context;
+	}
+	
+	/*
+	 * Resolves the STPA Library class for every Guideword. Guidewords whose 
+	 * class cannot be found are left out of the table.
+	 */
+	private void resolveGuidewordClasses() {
+		this.guidewordClasses = new EnumMap<Guideword, Class>(Guideword.class);
+		for(Map.Entry<Guideword, String> entry : GUIDEWORD_CLASSES.entrySet()) {
+			NamedElement keyword = findByQualifiedName(entry.getValue());
+			if(keyword instanceof Class) {
+				this.guidewordClasses.put(entry.getKey(), (Class) keyword);
+			}
+		}
+	}
+	
+	/*
+	 * Returns the named stereotype, looking it up on the given element the first
+	 * time it is needed during a run
+	 * 
+	 * @param e					an element the stereotype is applicable to
+	 * @param qualifiedName		the stereotype's qualified name
+	 * @return					the stereotype, or null if it is not applicable
+	 */
+	private Stereotype getStereotype(Element e, String qualifiedName) {
+		Stereotype st = this.stereotypes.get(qualifiedName);
+		if(st == null) {
+			st = e.getApplicableStereotype(qualifiedName);
+			this.stereotypes.put(qualifiedName, st);
+		}
+		return st;
 	}
 }
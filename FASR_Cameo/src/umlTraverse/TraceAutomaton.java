@@ -0,0 +1,342 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/*
+ * A labeled transition system compiled from a state machine or activity.
+ *
+ * States and signals are numbered from 0. The transitions leaving state s
+ * are stored at indices offsets[s] to offsets[s + 1] of the labels and
+ * targets arrays. Transitions that don't correspond to a signal (completion
+ * transitions, control nodes and so on) are labeled SILENT and never appear
+ * in traces.
+ */
+public class TraceAutomaton {
+	public static final int SILENT = -1;
+
+	private String[] stateNames;
+	private String[] signals;
+	private int initial;
+	private int[] offsets;
+	private int[] labels;
+	private int[] targets;
+	// States reachable from each state through silent transitions alone,
+	// computed the first time a state is reached; null until then
+	private AtomicReferenceArray<BitSet> closures;
+
+	private TraceAutomaton(String[] stateNames, String[] signals, int initial, int[] offsets, int[] labels,
+			int[] targets) {
+		this.stateNames = stateNames;
+		this.signals = signals;
+		this.initial = initial;
+		this.offsets = offsets;
+		this.labels = labels;
+		this.targets = targets;
+		this.closures = new AtomicReferenceArray<BitSet>(stateNames.length);
+	}
+
+	public int getStateCount() {
+		return this.stateNames.length;
+	}
+
+	public int getTransitionCount() {
+		return this.targets.length;
+	}
+
+	public int getInitialState() {
+		return this.initial;
+	}
+
+	public String getStateName(int state) {
+		return this.stateNames[state];
+	}
+
+	/*
+	 * Returns the states with any of the given names
+	 *
+	 * @param names	state names
+	 * @return		a set of state ids
+	 */
+	public BitSet getStatesNamed(Collection<String> names) {
+		BitSet result = new BitSet(getStateCount());
+		for (int s = 0; s < getStateCount(); s++) {
+			if (names.contains(this.stateNames[s])) {
+				result.set(s);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Returns the name of a signal
+	 *
+	 * @param label	a signal id
+	 * @return		the signal's name
+	 */
+	public String getSignal(int label) {
+		return this.signals[label];
+	}
+
+	/*
+	 * Returns the id of a signal
+	 *
+	 * @param name	a signal name
+	 * @return		the signal's id, or SILENT if the automaton never emits it
+	 */
+	public int getSignalId(String name) {
+		for (int i = 0; i < this.signals.length; i++) {
+			if (this.signals[i].equals(name)) {
+				return i;
+			}
+		}
+		return SILENT;
+	}
+
+	public int getSignalCount() {
+		return this.signals.length;
+	}
+
+	/*
+	 * Returns the number of transitions leaving a state
+	 */
+	public int getOutDegree(int state) {
+		return this.offsets[state + 1] - this.offsets[state];
+	}
+
+	/*
+	 * Returns the label of a state's i-th outgoing transition
+	 */
+	public int getLabel(int state, int i) {
+		return this.labels[this.offsets[state] + i];
+	}
+
+	/*
+	 * Returns the target of a state's i-th outgoing transition
+	 */
+	public int getTarget(int state, int i) {
+		return this.targets[this.offsets[state] + i];
+	}
+
+	/*
+	 * Returns the states reachable from a state through silent transitions,
+	 * including the state itself. The caller must not modify the result.
+	 */
+	public BitSet getSilentClosure(int state) {
+		BitSet closure = this.closures.get(state);
+		if (closure == null) {
+			// Threads that race here compute the same set, so any of them wins
+			this.closures.compareAndSet(state, null, silentClosure(state));
+			closure = this.closures.get(state);
+		}
+		return closure;
+	}
+
+	/*
+	 * Returns the states reachable from the initial state
+	 *
+	 * @return	a set of state ids
+	 */
+	public BitSet getReachableStates() {
+		BitSet visited = new BitSet(getStateCount());
+		int[] stack = new int[getStateCount()];
+		int size = 0;
+		visited.set(this.initial);
+		stack[size++] = this.initial;
+		while (size > 0) {
+			int s = stack[--size];
+			for (int t = this.offsets[s]; t < this.offsets[s + 1]; t++) {
+				int target = this.targets[t];
+				if (!visited.get(target)) {
+					visited.set(target);
+					stack[size++] = target;
+				}
+			}
+		}
+		return visited;
+	}
+
+	/*
+	 * Enumerates every distinct trace of signals, up to a given length, that
+	 * the automaton can produce from its initial state. Traces are returned
+	 * shortest first, and traces of the same length in a fixed order.
+	 *
+	 * Each trace is tracked together with the set of states it can end in, so
+	 * a trace is generated once however many paths produce it. Each length is
+	 * expanded in parallel.
+	 *
+	 * @param maxLength	the longest trace to produce
+	 * @param maxTraces	stop once this many traces have been produced
+	 * @return			the traces, as lists of signal names
+	 */
+	public List<List<String>> enumerateTraces(int maxLength, int maxTraces) {
+		List<List<String>> result = new ArrayList<List<String>>();
+		List<Prefix> frontier = List.of(new Prefix(new int[0], getSilentClosure(this.initial)));
+		for (int length = 1; length <= maxLength && !frontier.isEmpty() && result.size() < maxTraces; length++) {
+			frontier = frontier.parallelStream()
+					.flatMap(p -> expand(p).stream())
+					.collect(Collectors.toList());
+			for (Prefix p : frontier) {
+				if (result.size() >= maxTraces) {
+					break;
+				}
+				result.add(toNames(p.trace));
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Converts a trace of signal ids to signal names
+	 */
+	public List<String> toNames(int[] trace) {
+		List<String> names = new ArrayList<String>(trace.length);
+		for (int label : trace) {
+			names.add(this.signals[label]);
+		}
+		return Collections.unmodifiableList(names);
+	}
+
+	// A trace and the states the automaton may be in after producing it
+	private record Prefix(int[] trace, BitSet states) {
+	}
+
+	private List<Prefix> expand(Prefix p) {
+		// Successor states for each signal, ordered by signal id
+		Map<Integer, BitSet> next = new TreeMap<Integer, BitSet>();
+		for (int s = p.states.nextSetBit(0); s >= 0; s = p.states.nextSetBit(s + 1)) {
+			for (int t = this.offsets[s]; t < this.offsets[s + 1]; t++) {
+				if (this.labels[t] != SILENT) {
+					next.computeIfAbsent(this.labels[t], k -> new BitSet(getStateCount()))
+							.or(getSilentClosure(this.targets[t]));
+				}
+			}
+		}
+		List<Prefix> children = new ArrayList<Prefix>(next.size());
+		for (Map.Entry<Integer, BitSet> e : next.entrySet()) {
+			int[] trace = Arrays.copyOf(p.trace, p.trace.length + 1);
+			trace[p.trace.length] = e.getKey();
+			children.add(new Prefix(trace, e.getValue()));
+		}
+		return children;
+	}
+
+	private BitSet silentClosure(int state) {
+		// Sized as needed, since most closures are a handful of states
+		BitSet visited = new BitSet();
+		List<Integer> stack = new ArrayList<Integer>();
+		visited.set(state);
+		stack.add(state);
+		while (!stack.isEmpty()) {
+			int s = stack.remove(stack.size() - 1);
+			for (int t = this.offsets[s]; t < this.offsets[s + 1]; t++) {
+				if (this.labels[t] == SILENT && !visited.get(this.targets[t])) {
+					visited.set(this.targets[t]);
+					stack.add(this.targets[t]);
+				}
+			}
+		}
+		return visited;
+	}
+
+	/*
+	 * Collects states and transitions and packs them into a TraceAutomaton
+	 */
+	public static class Builder {
+		private List<String> stateNames = new ArrayList<String>();
+		private List<String> signals = new ArrayList<String>();
+		private Map<String, Integer> signalIds = new HashMap<String, Integer>();
+		private List<int[]> transitions = new ArrayList<int[]>();
+
+		/*
+		 * Adds a state
+		 *
+		 * @param name	a name used when reporting the state
+		 * @return		the new state's id
+		 */
+		public int addState(String name) {
+			this.stateNames.add(name);
+			return this.stateNames.size() - 1;
+		}
+
+		/*
+		 * Adds a transition
+		 *
+		 * @param from		the source state's id
+		 * @param signal	the signal emitted, or null for a silent transition
+		 * @param to		the target state's id
+		 */
+		public void addTransition(int from, String signal, int to) {
+			int label = SILENT;
+			if (signal != null) {
+				label = this.signalIds.computeIfAbsent(signal, k -> {
+					this.signals.add(k);
+					return this.signals.size() - 1;
+				});
+			}
+			this.transitions.add(new int[] { from, label, to });
+		}
+
+		/*
+		 * Builds the automaton
+		 *
+		 * @param initial	the initial state's id
+		 * @return			the compiled automaton
+		 */
+		public TraceAutomaton build(int initial) {
+			int n = this.stateNames.size();
+			if (initial < 0 || initial >= n) {
+				throw new IllegalArgumentException("Initial state " + initial + " does not exist");
+			}
+			int[] offsets = new int[n + 1];
+			for (int[] t : this.transitions) {
+				offsets[t[0] + 1]++;
+			}
+			for (int s = 0; s < n; s++) {
+				offsets[s + 1] += offsets[s];
+			}
+			int[] labels = new int[this.transitions.size()];
+			int[] targets = new int[this.transitions.size()];
+			int[] fill = Arrays.copyOf(offsets, n);
+			for (int[] t : this.transitions) {
+				int i = fill[t[0]]++;
+				labels[i] = t[1];
+				targets[i] = t[2];
+			}
+			return new TraceAutomaton(this.stateNames.toArray(new String[0]), this.signals.toArray(new String[0]),
+					initial, offsets, labels, targets);
+		}
+	}
+}
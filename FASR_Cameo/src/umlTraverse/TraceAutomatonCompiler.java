@@ -0,0 +1,237 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.uml2.uml.AcceptEventAction;
+import org.eclipse.uml2.uml.Activity;
+import org.eclipse.uml2.uml.ActivityEdge;
+import org.eclipse.uml2.uml.ActivityFinalNode;
+import org.eclipse.uml2.uml.ActivityNode;
+import org.eclipse.uml2.uml.Behavior;
+import org.eclipse.uml2.uml.CallBehaviorAction;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Event;
+import org.eclipse.uml2.uml.InitialNode;
+import org.eclipse.uml2.uml.Pseudostate;
+import org.eclipse.uml2.uml.PseudostateKind;
+import org.eclipse.uml2.uml.Region;
+import org.eclipse.uml2.uml.SendSignalAction;
+import org.eclipse.uml2.uml.SignalEvent;
+import org.eclipse.uml2.uml.State;
+import org.eclipse.uml2.uml.StateMachine;
+import org.eclipse.uml2.uml.StructuredActivityNode;
+import org.eclipse.uml2.uml.TimeEvent;
+import org.eclipse.uml2.uml.Transition;
+import org.eclipse.uml2.uml.Trigger;
+import org.eclipse.uml2.uml.Vertex;
+
+/*
+ * Compiles Machine state machines and Environment activities into
+ * TraceAutomata.
+ *
+ * Signal events, sent signals and accepted signals are labeled with the
+ * signal's name. Time events and actions named "Wait" are labeled "Wait", the
+ * delay action Fortis uses in its traces. Everything else is silent.
+ *
+ * The compiled automata are an approximation meant for quick iteration:
+ * guards are ignored (every branch of a choice or decision is possible), and
+ * the branches of a fork are treated as alternatives rather than run
+ * interleaved. Fortis remains the reference for full robustness runs.
+ */
+public class TraceAutomatonCompiler {
+	public static final String WAIT = "Wait";
+
+	TraverseModel tm;
+
+	public TraceAutomatonCompiler(TraverseModel tm) {
+		this.tm = tm;
+	}
+
+	/*
+	 * Compiles a Machine or Environment behavior
+	 *
+	 * @param b	a StateMachine or Activity
+	 * @return	the compiled automaton
+	 */
+	public TraceAutomaton compile(Behavior b) {
+		if (b instanceof StateMachine) {
+			return compile((StateMachine) b);
+		} else if (b instanceof Activity) {
+			return compile((Activity) b);
+		}
+		throw new IllegalArgumentException(b.getName() + " is neither a state machine nor an activity");
+	}
+
+	/*
+	 * Compiles a state machine. Each vertex becomes a state, and entering a
+	 * composite state silently enters the initial vertex of each of its
+	 * regions.
+	 *
+	 * @param sm	a StateMachine
+	 * @return		the compiled automaton
+	 */
+	public TraceAutomaton compile(StateMachine sm) {
+		TraceAutomaton.Builder builder = new TraceAutomaton.Builder();
+		Map<Vertex, Integer> ids = new HashMap<Vertex, Integer>();
+		int initial = -1;
+
+		for (Element e : sm.allOwnedElements()) {
+			if (e instanceof Vertex) {
+				Vertex v = (Vertex) e;
+				ids.put(v, builder.addState(name(v.getName(), "vertex", ids.size())));
+				if (initial < 0 && isInitial(v) && v.getContainer().getStateMachine() == sm) {
+					initial = ids.get(v);
+				}
+			}
+		}
+		if (initial < 0) {
+			throw new IllegalArgumentException(sm.getName() + " has no initial pseudostate");
+		}
+
+		for (Element e : sm.allOwnedElements()) {
+			if (e instanceof Transition) {
+				Transition t = (Transition) e;
+				Integer source = ids.get(t.getSource());
+				Integer target = ids.get(t.getTarget());
+				if (source != null && target != null) {
+					builder.addTransition(source, label(t.getTriggers()), target);
+				}
+			} else if (e instanceof State) {
+				for (Region r : ((State) e).getRegions()) {
+					for (Vertex v : r.getSubvertices()) {
+						if (isInitial(v)) {
+							builder.addTransition(ids.get(e), null, ids.get(v));
+						}
+					}
+				}
+			}
+		}
+		return builder.build(initial);
+	}
+
+	/*
+	 * Compiles an activity. Each node becomes a state, and a transition into
+	 * a node is labeled with that node's action. Structured activity nodes get
+	 * a second state for their exit: they are entered through their nodes
+	 * that have no incoming edges and left through their final nodes or
+	 * through edges back to the structured node itself.
+	 *
+	 * @param a	an Activity
+	 * @return	the compiled automaton
+	 */
+	public TraceAutomaton compile(Activity a) {
+		TraceAutomaton.Builder builder = new TraceAutomaton.Builder();
+		Map<ActivityNode, Integer> ids = new HashMap<ActivityNode, Integer>();
+		Map<ActivityNode, Integer> exits = new HashMap<ActivityNode, Integer>();
+		int initial = -1;
+
+		for (ActivityNode n : tm.getAllNodesFromActivity(a)) {
+			String name = name(n.getName(), "node", ids.size());
+			ids.put(n, builder.addState(name));
+			if (n instanceof StructuredActivityNode) {
+				exits.put(n, builder.addState(name + " (exit)"));
+			}
+			if (initial < 0 && n instanceof InitialNode && n.getOwner() == a) {
+				initial = ids.get(n);
+			}
+		}
+		if (initial < 0) {
+			throw new IllegalArgumentException(a.getName() + " has no initial node");
+		}
+
+		for (Element e : a.allOwnedElements()) {
+			if (e instanceof ActivityEdge) {
+				ActivityEdge edge = (ActivityEdge) e;
+				ActivityNode source = edge.getSource();
+				ActivityNode target = edge.getTarget();
+				int from = exits.containsKey(source) ? exits.get(source) : ids.get(source);
+				if (target == edge.getOwner()) {
+					// An edge back to its own structured node leaves that node
+					builder.addTransition(from, null, exits.get(target));
+				} else {
+					builder.addTransition(from, label(target), ids.get(target));
+				}
+			} else if (e instanceof StructuredActivityNode) {
+				StructuredActivityNode s = (StructuredActivityNode) e;
+				for (ActivityNode n : s.getNodes()) {
+					if (n.getIncomings().isEmpty()) {
+						builder.addTransition(ids.get(s), label(n), ids.get(n));
+					}
+					if (n instanceof ActivityFinalNode) {
+						builder.addTransition(ids.get(n), null, exits.get(s));
+					}
+				}
+			}
+		}
+		return builder.build(initial);
+	}
+
+	/*
+	 * Returns the signal an activity node emits when it is reached
+	 */
+	private String label(ActivityNode n) {
+		if (n instanceof SendSignalAction && ((SendSignalAction) n).getSignal() != null) {
+			return ((SendSignalAction) n).getSignal().getName();
+		} else if (n instanceof AcceptEventAction) {
+			return label(((AcceptEventAction) n).getTriggers());
+		} else if (n instanceof CallBehaviorAction) {
+			Behavior called = ((CallBehaviorAction) n).getBehavior();
+			if (WAIT.equals(n.getName()) || (called != null && WAIT.equals(called.getName()))) {
+				return WAIT;
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * Returns the signal that triggers a transition or accept event action
+	 */
+	private String label(List<Trigger> triggers) {
+		if (triggers.isEmpty()) {
+			return null;
+		}
+		Event event = triggers.get(0).getEvent();
+		if (event instanceof SignalEvent && ((SignalEvent) event).getSignal() != null) {
+			return ((SignalEvent) event).getSignal().getName();
+		} else if (event instanceof TimeEvent) {
+			return WAIT;
+		}
+		return null;
+	}
+
+	private static boolean isInitial(Vertex v) {
+		return v instanceof Pseudostate && ((Pseudostate) v).getKind() == PseudostateKind.INITIAL_LITERAL;
+	}
+
+	private static String name(String name, String kind, int id) {
+		if (name == null || name.isEmpty()) {
+			return kind + " " + id;
+		}
+		return name;
+	}
+}
@@ -23,9 +23,20 @@
 
 package umlTraverse;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.util.BasicEList;
@@ -42,6 +53,7 @@ import org.eclipse.uml2.uml.ActivityNode;
 import org.eclipse.uml2.uml.Behavior;
 import org.eclipse.uml2.uml.Element;
 import org.eclipse.uml2.uml.InitialNode;
+import org.eclipse.uml2.uml.NamedElement;
 import org.eclipse.uml2.uml.PackageableElement;
 import org.eclipse.uml2.uml.Pseudostate;
 import org.eclipse.uml2.uml.PseudostateKind;
@@ -60,6 +72,11 @@ public class TraverseModel {
 		private Package model;
 		private ResourceSet resources;
 		private URI modelURI;
+		private QualifiedNameCache nameCache;
+		private ProfileCache profiles;
+		// Shared by every save so EMF can reuse its feature lookups
+		private List<Object> saveLookupTable = new ArrayList<>();
+		private static final int SAVE_BUFFER_SIZE = 1 << 20;
 		/*
 		 * Class constructor
 		 */
@@ -75,6 +92,17 @@ public class TraverseModel {
 			this.model = loadModel(path);
 		}
 		
+		/*
+		 * Class constructor specifying project path and a profile cache shared
+		 * with other models
+		 * @param path 		specifies path to UML file to load
+		 * @param profiles	serves profile files that other models have already read
+		 */
+		public TraverseModel(String path, ProfileCache profiles) {
+			this.profiles = profiles;
+			this.model = loadModel(path);
+		}
+		
 
 		/*
 		 * Loads the UML model into memory
@@ -84,7 +112,14 @@ public class TraverseModel {
 		 */
 		public Package loadModel(String path) {
 			this.resources = new ResourceSetImpl();
-			UMLResourcesUtil.init(resources);
+			// init also fills in global registries, so models loaded on
+			// different threads take turns
+			synchronized (TraverseModel.class) {
+				UMLResourcesUtil.init(resources);
+			}
+			if(this.profiles != null) {
+				this.profiles.install(resources.getURIConverter().getURIHandlers());
+			}
 			Resource modelResource; 
 			
 			try {
@@ -92,8 +127,26 @@ public class TraverseModel {
 				File file = new File(path);
 				String absolutePath = file.getAbsolutePath();
 				this.modelURI  = URI.createFileURI(absolutePath);
+				ModelEvents.Load load = new ModelEvents.Load();
+				load.begin();
 				modelResource = resources.getResource(modelURI  , true);
+				load.end();
+				if(load.shouldCommit()) {
+					load.path = absolutePath;
+					load.bytes = file.length();
+					load.commit();
+				}
+				ModelEvents.Resolve resolve = new ModelEvents.Resolve();
+				resolve.begin();
                 EcoreUtil.resolveAll(modelResource);
+				resolve.end();
+				if(resolve.shouldCommit()) {
+					resolve.path = absolutePath;
+					resolve.elements = countElements(modelResource.getAllContents());
+					resolve.commit();
+				}
+                // Lets updateUML skip saving a model that hasn't changed
+                modelResource.setTrackingModification(true);
 			} catch (RuntimeException e) {
                 System.err.println(e.getMessage());
                 return null;
@@ -143,7 +196,7 @@ public class TraverseModel {
 		public Package getPackageByName(String packageName) {
 			Package result = null; 
 			for(Element e : this.model.getOwnedElements()) {
-				if(e instanceof Package && ((Package)e).getName().equals(packageName)) {
+				if(e instanceof Package && packageName.equals(((Package)e).getName())) {
 					result = (Package)e;
 					break;
 				}
@@ -300,16 +353,62 @@ public class TraverseModel {
 			return this.model;
 		}
 		
+		/*
+		 * Finds a NamedElement in the model by its qualified name. Results are
+		 * cached, and the cache is kept current as the model is edited.
+		 * 
+		 * @param qualifiedName	a "::" separated qualified name
+		 * @return				the named element, or null if it wasn't found
+		 */
+		public NamedElement findByQualifiedName(String qualifiedName) {
+			if(this.nameCache == null || this.nameCache.getRoot() != this.model) {
+				// Detach the old cache from the model it was watching
+				if(this.nameCache != null) {
+					this.nameCache.clear();
+				}
+				this.nameCache = new QualifiedNameCache(this.model);
+			}
+			return this.nameCache.find(qualifiedName);
+		}
+
+		/*
+		 * Takes an immutable snapshot of the model that any number of threads
+		 * can query at once. The snapshot doesn't see later edits; take a new
+		 * one after changing the model.
+		 *
+		 * @return	a snapshot of the loaded model
+		 */
+		public ModelSnapshot snapshot() {
+			return ModelSnapshot.of(this.model);
+		}
+		
+		/*
+		 * Returns whether the model has changed since it was loaded or last
+		 * saved. Models whose changes aren't tracked are always reported as
+		 * modified.
+		 * 
+		 * @return	true if the model needs saving
+		 */
+		public boolean isModified() {
+			Resource resource = resources.getResource(modelURI  , true);
+			return !resource.isTrackingModification() || resource.isModified();
+		}
+		
+		/*
+		 * Saves the loaded model back to its file. The model is only
+		 * re-serialized if it has been modified since it was loaded or last
+		 * saved.
+		 * 
+		 * @return	false if the model could not be saved
+		 */
 		public boolean updateUML() {
-			Map<String, Object> options = new HashMap<>();
-			options.put(XMIResource.OPTION_ENCODING, "UTF-8");
-			options.put(XMIResource.OPTION_SAVE_TYPE_INFORMATION, Boolean.TRUE);
-			options.put(XMIResource.OPTION_SCHEMA_LOCATION, Boolean.TRUE);
-			
+			if(!isModified()) {
+				return true;
+			}
 			Resource resource = resources.getResource(modelURI  , true);
 
 			try {
-			    resource.save(options);
+			    save(resource);
 			} catch (IOException e) {
 			    e.printStackTrace();
 			    return false;
@@ -318,18 +417,13 @@ public class TraverseModel {
 		}
 		
 		public void exportModel() {
-			Map<String, Object> options = new HashMap<>();
-			options.put(XMIResource.OPTION_ENCODING, "UTF-8");
-			options.put(XMIResource.OPTION_SAVE_TYPE_INFORMATION, Boolean.TRUE);
-			options.put(XMIResource.OPTION_SCHEMA_LOCATION, Boolean.TRUE);
-			
 			URI newUri = URI.createFileURI("modified-model.uml");
 			Resource newResource = this.resources.createResource(newUri);
 			Resource modelResource = resources.getResource(modelURI  , true);
 			newResource.getContents().add(modelResource.getContents().get(0)); // add the root element
 
 			try {
-				newResource.save(options);
+				save(newResource);
 			} catch (IOException e) {
 				// TODO Auto-generated catch block
 				e.printStackTrace();
@@ -338,5 +432,74 @@ public class TraverseModel {
 
 		}
 		
+		/*
+		 * Returns the options used to save models. The lookup table is kept
+		 * between saves so that repeated saves of the same model don't have to
+		 * rebuild it.
+		 * 
+		 * @return	XMI save options
+		 */
+		private Map<String, Object> getSaveOptions() {
+			Map<String, Object> options = new HashMap<>();
+			options.put(XMIResource.OPTION_ENCODING, "UTF-8");
+			options.put(XMIResource.OPTION_SAVE_TYPE_INFORMATION, Boolean.TRUE);
+			options.put(XMIResource.OPTION_SCHEMA_LOCATION, Boolean.TRUE);
+			options.put(XMIResource.OPTION_USE_CACHED_LOOKUP_TABLE, this.saveLookupTable);
+			options.put(XMIResource.OPTION_CONFIGURATION_CACHE, Boolean.TRUE);
+			options.put(XMIResource.OPTION_FLUSH_THRESHOLD, SAVE_BUFFER_SIZE);
+			return options;
+		}
+		
+		/*
+		 * Saves a resource to its file through a buffered stream. The resource
+		 * is written to a temporary file next to the target, which then replaces
+		 * the target, so a failed save never leaves a partially written model.
+		 * The saved file keeps the permissions the target had.
+		 * 
+		 * @param resource	the resource to save
+		 */
+		private void save(Resource resource) throws IOException {
+			ModelEvents.Save event = new ModelEvents.Save();
+			event.begin();
+			Path target = Paths.get(resource.getURI().toFileString()).toAbsolutePath();
+			boolean posix = target.getFileSystem().supportedFileAttributeViews().contains("posix");
+			// Temporary files are owner-only by default; ask for the usual
+			// permissions instead, which the umask then limits as for any new file
+			Path temp = posix
+					? Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp",
+							PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-rw-rw-")))
+					: Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+			try {
+				try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), SAVE_BUFFER_SIZE)) {
+					resource.save(out, getSaveOptions());
+				}
+				event.bytes = Files.size(temp);
+				if (posix && Files.exists(target)) {
+					Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+				}
+				try {
+					Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+			event.path = target.toString();
+			event.commit();
+		}
+		
+		/*
+		 * Counts the elements an iterator visits, for reporting
+		 */
+		static long countElements(Iterator<?> contents) {
+			long count = 0;
+			while(contents.hasNext()) {
+				contents.next();
+				count++;
+			}
+			return count;
+		}
+		
 
 }
@@ -0,0 +1,279 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.uml2.uml.Package;
+
+import ucaClassification.DamerauLevenshteinClassifier;
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/*
+ * A bounded hand-off between the classifier and the SysMLGenerator.
+ *
+ * The classifier runs on its own thread and accept()s each UCA as it finds
+ * it; when the buffer is full it blocks until the generator catches up. The
+ * generator iterates over the pipeline on the thread that owns the model,
+ * so only a buffer's worth of UCAs is ever held between the two.
+ *
+ * As with the classifier's --file mode, a pair that can't be classified is
+ * skipped rather than ending the run. Skipped pairs are passed along the
+ * buffer in order and reported on the generator's thread.
+ */
+public class UCAPipeline implements Iterator<UnsafeControlAction>, Consumer<UnsafeControlAction> {
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	// Reports skipped pairs the way the classifier's other entry points do
+	public static final BiConsumer<TracePair, RuntimeException> REPORT_SKIPPED = (pair, e) -> System.err
+			.println("Skipping " + pair + ": " + e.getMessage());
+
+	// Marks the end of the stream in the buffer
+	private static final Object END = new Object();
+
+	// A pair the classifier skipped, in the buffer
+	private record Skipped(TracePair pair, RuntimeException reason) {
+	}
+
+	private BlockingQueue<Object> buffer;
+	private BiConsumer<TracePair, RuntimeException> skipped;
+	private Object next;
+	private boolean finished;
+
+	/*
+	 * Class constructor; skipped pairs are reported on System.err
+	 *
+	 * @param capacity	the number of UCAs that may be buffered before the
+	 * 					producer blocks
+	 */
+	public UCAPipeline(int capacity) {
+		this(capacity, REPORT_SKIPPED);
+	}
+
+	/*
+	 * Class constructor
+	 *
+	 * @param capacity	the number of UCAs that may be buffered before the
+	 * 					producer blocks
+	 * @param skipped	told, on the consumer's thread and in input order,
+	 * 					about each pair that can't be classified and why
+	 */
+	public UCAPipeline(int capacity, BiConsumer<TracePair, RuntimeException> skipped) {
+		this.buffer = new ArrayBlockingQueue<Object>(capacity);
+		this.skipped = skipped;
+		this.finished = false;
+	}
+
+	/*
+	 * Classifies Fortis output and generates SysML elements for it as one
+	 * pipelined process. Classification runs on a background thread; the
+	 * model is only touched by the calling thread.
+	 *
+	 * @param dlc			the classifier
+	 * @param fortisOutput	Fortis' JSON output; closed when the run ends
+	 * @param tm			the model to add the elements to
+	 * @param capacity		the number of UCAs that may be buffered
+	 * @return				the generated package
+	 */
+	public static Package run(DamerauLevenshteinClassifier dlc, InputStream fortisOutput, TraverseModel tm,
+			int capacity) {
+		return run(dlc, fortisOutput, tm, capacity, REPORT_SKIPPED);
+	}
+
+	/*
+	 * Classifies Fortis output and generates SysML elements for it as one
+	 * pipelined process, telling the caller about pairs that are skipped
+	 *
+	 * @param dlc			the classifier
+	 * @param fortisOutput	Fortis' JSON output; closed when the run ends
+	 * @param tm			the model to add the elements to
+	 * @param capacity		the number of UCAs that may be buffered
+	 * @param skipped		told about each pair that can't be classified
+	 * @return				the generated package
+	 */
+	public static Package run(DamerauLevenshteinClassifier dlc, InputStream fortisOutput, TraverseModel tm,
+			int capacity, BiConsumer<TracePair, RuntimeException> skipped) {
+		return run(dlc, fortisOutput, capacity, skipped,
+				pipeline -> new SysMLGenerator(pipeline, tm).generateElements());
+	}
+
+	/*
+	 * Classifies Fortis output on a background thread and hands the UCAs to
+	 * a consumer on the calling thread. However the run ends, the classifier
+	 * thread is stopped and the input is closed: a failed classifier is
+	 * reported to the consumer, and a failed consumer interrupts the
+	 * classifier rather than leaving it blocked on a full buffer.
+	 *
+	 * @param dlc			the classifier
+	 * @param fortisOutput	Fortis' JSON output; closed when the run ends
+	 * @param capacity		the number of UCAs that may be buffered
+	 * @param consumer		reads the UCAs from the pipeline
+	 * @return				whatever the consumer returns
+	 */
+	public static <T> T run(DamerauLevenshteinClassifier dlc, InputStream fortisOutput, int capacity,
+			Function<UCAPipeline, T> consumer) {
+		return run(dlc, fortisOutput, capacity, REPORT_SKIPPED, consumer);
+	}
+
+	/*
+	 * Classifies Fortis output on a background thread and hands the UCAs to
+	 * a consumer on the calling thread, telling the caller about pairs that
+	 * are skipped as the consumer reaches them
+	 *
+	 * @param dlc			the classifier
+	 * @param fortisOutput	Fortis' JSON output; closed when the run ends
+	 * @param capacity		the number of UCAs that may be buffered
+	 * @param skipped		told about each pair that can't be classified
+	 * @param consumer		reads the UCAs from the pipeline
+	 * @return				whatever the consumer returns
+	 */
+	public static <T> T run(DamerauLevenshteinClassifier dlc, InputStream fortisOutput, int capacity,
+			BiConsumer<TracePair, RuntimeException> skipped, Function<UCAPipeline, T> consumer) {
+		UCAPipeline pipeline = new UCAPipeline(capacity, skipped);
+		Thread producer = new Thread(() -> {
+			try {
+				dlc.classifyFortisOutput(fortisOutput, pipeline, pipeline::skip);
+				pipeline.close();
+			} catch (Throwable e) {
+				// Errors too, or the consumer would wait for END forever. An
+				// interrupted producer was stopped by the consumer, which
+				// isn't waiting any more.
+				if (!Thread.currentThread().isInterrupted()) {
+					pipeline.fail(e);
+				}
+			}
+		}, "UCA classifier");
+		producer.setDaemon(true);
+		producer.start();
+		try {
+			return consumer.apply(pipeline);
+		} finally {
+			producer.interrupt();
+			try {
+				fortisOutput.close();
+			} catch (IOException e) {
+				// The run's outcome has already been decided
+			}
+		}
+	}
+
+	/*
+	 * Adds a UCA to the buffer, blocking while it is full
+	 *
+	 * @param u	a classified UCA
+	 */
+	@Override
+	public void accept(UnsafeControlAction u) {
+		put(u);
+	}
+
+	/*
+	 * Records a pair the producer couldn't classify, blocking while the
+	 * buffer is full
+	 *
+	 * @param pair		the pair
+	 * @param reason	why it couldn't be classified
+	 */
+	public void skip(TracePair pair, RuntimeException reason) {
+		put(new Skipped(pair, reason));
+	}
+
+	/*
+	 * Signals that the producer has no more UCAs
+	 */
+	public void close() {
+		put(END);
+	}
+
+	/*
+	 * Signals that the producer failed; the consumer sees the failure as a
+	 * RuntimeException, or the Error itself, once it has drained the UCAs
+	 * buffered before it
+	 *
+	 * @param e	the reason the producer stopped
+	 */
+	public void fail(Throwable e) {
+		put(e);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (this.finished) {
+			return false;
+		}
+		while (this.next == null || this.next instanceof Skipped) {
+			if (this.next instanceof Skipped skip) {
+				this.next = null;
+				this.skipped.accept(skip.pair(), skip.reason());
+			}
+			try {
+				this.next = this.buffer.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for UCAs", e);
+			}
+		}
+		if (this.next == END) {
+			this.finished = true;
+			return false;
+		}
+		if (this.next instanceof Error) {
+			this.finished = true;
+			throw (Error) this.next;
+		}
+		if (this.next instanceof Throwable) {
+			this.finished = true;
+			throw new IllegalStateException("Classification failed", (Throwable) this.next);
+		}
+		return true;
+	}
+
+	@Override
+	public UnsafeControlAction next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		UnsafeControlAction u = (UnsafeControlAction) this.next;
+		this.next = null;
+		return u;
+	}
+
+	private void put(Object o) {
+		try {
+			this.buffer.put(o);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while buffering UCAs", e);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import umlTraverse.ModelBatch;
+import umlTraverse.ModelBatch.ModelTiming;
+import umlTraverse.TraverseModel;
+
+class ModelBatchTests {
+	List<Path> models;
+
+	@BeforeEach
+	void setup() throws Exception {
+		this.models = new ArrayList<Path>();
+		for (int i = 0; i < 3; i++) {
+			// Next to the profiles the models refer to
+			Path model = Files.createTempFile(Path.of("Diagrams"), "batch", ".uml");
+			Files.copy(Path.of("Diagrams/WaterTank.uml"), model, StandardCopyOption.REPLACE_EXISTING);
+			this.models.add(model);
+		}
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		for (Path model : this.models) {
+			Files.deleteIfExists(model);
+		}
+	}
+
+	@Test
+	void testRefusesSharedCache() {
+		assumeFalse(Boolean.getBoolean(ModelBatch.THREAD_LOCAL_CACHE));
+		assertThrows(IllegalStateException.class, () -> new ModelBatch(2));
+	}
+
+	@Test
+	void testRun() {
+		assumeTrue(Boolean.getBoolean(ModelBatch.THREAD_LOCAL_CACHE),
+				"Run with -D" + ModelBatch.THREAD_LOCAL_CACHE + "=true");
+		List<String> paths = new ArrayList<String>();
+		for (Path model : this.models) {
+			paths.add(model.toString());
+		}
+		String changed = paths.get(0);
+		String broken = paths.get(2);
+		List<ModelTiming> timings = new ModelBatch(2).run(paths, (path, tm) -> {
+			if (path.equals(changed)) {
+				tm.getModel().createNestedPackage("Batch Package");
+			} else if (path.equals(broken)) {
+				throw new IllegalArgumentException("work failed");
+			}
+		});
+		assertEquals(3, timings.size());
+		assertTrue(timings.get(0).saved());
+		assertNull(timings.get(0).failure());
+		assertFalse(timings.get(1).saved());
+		assertNull(timings.get(1).failure());
+		assertEquals("work failed", timings.get(2).failure().getMessage());
+		assertNotNull(new TraverseModel(changed).getPackageByName("Batch Package"));
+		assertNull(new TraverseModel(paths.get(1)).getPackageByName("Batch Package"));
+	}
+}
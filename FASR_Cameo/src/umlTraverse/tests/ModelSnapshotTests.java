@@ -0,0 +1,91 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.uml2.uml.Behavior;
+import org.eclipse.uml2.uml.State;
+import org.eclipse.uml2.uml.StateMachine;
+import org.eclipse.uml2.uml.Transition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import umlTraverse.ModelSnapshot;
+import umlTraverse.TraverseModel;
+
+class ModelSnapshotTests {
+	TraverseModel waterTankTM;
+	ModelSnapshot snapshot;
+
+	@BeforeEach
+	void setup() {
+		this.waterTankTM = new TraverseModel("Diagrams/WaterTank.uml");
+		this.snapshot = this.waterTankTM.snapshot();
+	}
+
+	@Test
+	void testMatchesModel() {
+		EList<BasicEList<Behavior>> diagrams = this.waterTankTM.getDiagrams(this.waterTankTM.getModel());
+		List<int[]> snapshotDiagrams = this.snapshot.getDiagrams();
+		assertEquals(diagrams.get(0).size(), snapshotDiagrams.get(0).length);
+		assertEquals(diagrams.get(1).size(), snapshotDiagrams.get(1).length);
+
+		for (int sm : snapshotDiagrams.get(0)) {
+			if (this.snapshot.getKind(sm) != ModelSnapshot.Kind.STATE_MACHINE) {
+				continue;
+			}
+			StateMachine machine = (StateMachine) this.snapshot.getElement(sm);
+			assertSame(this.waterTankTM.getFirstState(machine), this.snapshot.getElement(this.snapshot.getFirstState(sm)));
+			int[] states = this.snapshot.getAllStatesFromStateMachine(sm);
+			assertEquals(this.waterTankTM.getAllStatesFromStateMachine(machine).size(), states.length);
+			for (int s : states) {
+				EList<Transition> from = this.waterTankTM.getTransitionsFromState((State) this.snapshot.getElement(s));
+				int[] snapshotFrom = this.snapshot.getTransitionsFromState(s);
+				assertEquals(from.size(), snapshotFrom.length);
+				for (int i = 0; i < snapshotFrom.length; i++) {
+					assertSame(from.get(i), this.snapshot.getElement(snapshotFrom[i]));
+					assertEquals(s, this.snapshot.getSource(snapshotFrom[i]));
+				}
+			}
+		}
+		for (int id = 0; id < this.snapshot.getElementCount(); id++) {
+			String qualifiedName = this.snapshot.getQualifiedName(id);
+			if (qualifiedName != null) {
+				assertSame(this.waterTankTM.findByQualifiedName(qualifiedName),
+						this.snapshot.getElement(this.snapshot.findByQualifiedName(qualifiedName)));
+			}
+		}
+		assertEquals(ModelSnapshot.NONE, this.snapshot.findByQualifiedName("Model::No Such Package"));
+	}
+
+	@Test
+	void testConcurrentReads() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = pool.invokeAll(Collections.nCopies(32, () -> {
+				int found = 0;
+				for (int id = 0; id < this.snapshot.getElementCount(); id++) {
+					String qualifiedName = this.snapshot.getQualifiedName(id);
+					if (qualifiedName != null && this.snapshot.findByQualifiedName(qualifiedName) != ModelSnapshot.NONE) {
+						found++;
+					}
+				}
+				return found;
+			}));
+			int expected = results.get(0).get();
+			for (Future<Integer> result : results) {
+				assertEquals(expected, result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.URIHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import umlTraverse.ProfileCache;
+
+class ProfileCacheTests {
+	Path directory;
+	URI profile;
+	ProfileCache cache;
+
+	@BeforeEach
+	void setup() throws Exception {
+		this.directory = Files.createTempDirectory("profiles");
+		Path file = this.directory.resolve("Test.profile.uml");
+		Files.writeString(file, "first");
+		this.profile = URI.createFileURI(file.toString());
+		this.cache = new ProfileCache();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		try (var files = Files.list(this.directory)) {
+			for (Path f : files.toList()) {
+				Files.delete(f);
+			}
+		}
+		Files.delete(this.directory);
+	}
+
+	@Test
+	void testReadsProfilesOnce() throws Exception {
+		assertTrue(this.cache.canHandle(this.profile));
+		assertFalse(this.cache.canHandle(URI.createFileURI(this.directory.resolve("Model.uml").toString())));
+		assertArrayEquals(bytes("first"), read());
+		Files.writeString(this.directory.resolve("Test.profile.uml"), "changed on disk");
+		// Served from memory
+		assertArrayEquals(bytes("first"), read());
+		assertEquals(1, this.cache.size());
+	}
+
+	@Test
+	void testWritingInvalidates() throws Exception {
+		read();
+		try (OutputStream out = this.cache.createOutputStream(this.profile, Map.of())) {
+			out.write(bytes("second"));
+		}
+		assertEquals(0, this.cache.size());
+		assertArrayEquals(bytes("second"), read());
+	}
+
+	@Test
+	void testInstall() {
+		List<URIHandler> handlers = new ArrayList<URIHandler>(URIHandler.DEFAULT_HANDLERS);
+		this.cache.install(handlers);
+		this.cache.install(handlers);
+		assertEquals(this.cache, handlers.get(0));
+		assertEquals(URIHandler.DEFAULT_HANDLERS.size() + 1, handlers.size());
+	}
+
+	byte[] read() throws Exception {
+		try (InputStream in = this.cache.createInputStream(this.profile, Map.of())) {
+			return in.readAllBytes();
+		}
+	}
+
+	static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+}
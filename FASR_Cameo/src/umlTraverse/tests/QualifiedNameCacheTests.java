@@ -0,0 +1,83 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import umlTraverse.QualifiedNameCache;
+
+class QualifiedNameCacheTests {
+	Package root;
+	Package outer;
+	Package inner;
+	Class block;
+	QualifiedNameCache cache;
+
+	@BeforeEach
+	void setup() {
+		this.root = UMLFactory.eINSTANCE.createPackage();
+		this.root.setName("Model");
+		this.outer = this.root.createNestedPackage("Outer");
+		this.inner = this.outer.createNestedPackage("Inner");
+		this.block = this.inner.createOwnedClass("Block", false);
+		this.cache = new QualifiedNameCache(this.root);
+	}
+
+	@Test
+	void testRenameElement() {
+		assertSame(this.block, this.cache.find("Outer::Inner::Block"));
+		this.block.setName("Renamed");
+		assertNull(this.cache.find("Outer::Inner::Block"));
+		assertSame(this.block, this.cache.find("Outer::Inner::Renamed"));
+	}
+
+	@Test
+	void testRenameIntermediatePackage() {
+		assertSame(this.block, this.cache.find("Outer::Inner::Block"));
+		this.inner.setName("Middle");
+		assertNull(this.cache.find("Outer::Inner::Block"));
+		assertSame(this.block, this.cache.find("Outer::Middle::Block"));
+	}
+
+	@Test
+	void testEarlierSameNamedMember() {
+		assertSame(this.block, this.cache.find("Outer::Inner::Block"));
+		// Lookups return the first member with the name, so this one now wins
+		Class earlier = UMLFactory.eINSTANCE.createClass();
+		earlier.setName("Block");
+		this.inner.getPackagedElements().add(0, earlier);
+		assertSame(earlier, this.cache.find("Outer::Inner::Block"));
+	}
+
+	@Test
+	void testDestroyElement() {
+		assertSame(this.block, this.cache.find("Outer::Inner::Block"));
+		this.block.destroy();
+		assertNull(this.cache.find("Outer::Inner::Block"));
+	}
+
+	@Test
+	void testMissThenFound() {
+		assertNull(this.cache.find("Outer::Inner::Later"));
+		Class later = this.inner.createOwnedClass("Later", false);
+		assertSame(later, this.cache.find("Outer::Inner::Later"));
+	}
+
+	@Test
+	void testClearDetaches() {
+		this.cache.find("Outer::Inner::Block");
+		assertTrue(this.inner.eAdapters().contains(this.cache));
+		this.cache.clear();
+		assertFalse(this.root.eAdapters().contains(this.cache));
+		assertFalse(this.outer.eAdapters().contains(this.cache));
+		assertFalse(this.inner.eAdapters().contains(this.cache));
+		assertFalse(this.block.eAdapters().contains(this.cache));
+	}
+}
@@ -0,0 +1,73 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import umlTraverse.RobustnessSearch;
+import umlTraverse.TraceAutomaton;
+
+class RobustnessSearchTests {
+	TraceAutomaton pump;
+	TraceAutomaton operator;
+
+	@BeforeEach
+	void setup() {
+		// The pump overheats if it is left running for a time step
+		TraceAutomaton.Builder machine = new TraceAutomaton.Builder();
+		int off = machine.addState("off");
+		int on = machine.addState("on");
+		int overheated = machine.addState("overheated");
+		machine.addTransition(off, "TurnPumpOn", on);
+		machine.addTransition(on, "TurnPumpOff", off);
+		machine.addTransition(on, "Wait", overheated);
+		this.pump = machine.build(off);
+
+		// The operator turns the pump on and straight back off
+		TraceAutomaton.Builder environment = new TraceAutomaton.Builder();
+		int initial = environment.addState("initial");
+		int start = environment.addState("start");
+		int running = environment.addState("running");
+		int done = environment.addState("done");
+		environment.addTransition(initial, null, start);
+		environment.addTransition(start, "TurnPumpOn", running);
+		environment.addTransition(running, "TurnPumpOff", done);
+		this.operator = environment.build(initial);
+	}
+
+	@Test
+	void testNoDeviations() {
+		RobustnessSearch search = new RobustnessSearch(pump, operator, pump.getStatesNamed(Set.of("overheated")),
+				"Pump", "NoOverheat");
+		assertTrue(search.search(10, 0, 10).isEmpty());
+	}
+
+	@Test
+	void testDelay() {
+		RobustnessSearch search = new RobustnessSearch(pump, operator, pump.getStatesNamed(Set.of("overheated")),
+				"Pump", "NoOverheat");
+		List<TracePair> pairs = search.search(10, 1, 10);
+		assertEquals(1, pairs.size());
+		assertEquals(List.of("TurnPumpOn"), pairs.get(0).goodTrace());
+		assertEquals(List.of("TurnPumpOn", "Wait"), pairs.get(0).badTrace());
+		assertEquals(List.of("Pump"), pairs.get(0).violatingComponents());
+		assertEquals(List.of("NoOverheat"), pairs.get(0).violatedInvs());
+	}
+
+	@Test
+	void testSkip() {
+		// Skipping TurnPumpOff leaves the pump running, so it can overheat later
+		RobustnessSearch search = new RobustnessSearch(pump, operator, pump.getStatesNamed(Set.of("overheated")),
+				"Pump", "NoOverheat");
+		List<TracePair> pairs = search.search(10, 2, 10);
+		assertEquals(2, pairs.size());
+		assertEquals(List.of("TurnPumpOn", "TurnPumpOff"), pairs.get(1).goodTrace());
+		assertEquals(List.of("TurnPumpOn", "Wait"), pairs.get(1).badTrace());
+	}
+}
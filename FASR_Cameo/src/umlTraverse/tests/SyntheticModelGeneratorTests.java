@@ -0,0 +1,68 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.uml2.uml.Behavior;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.StateMachine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ucaClassification.DamerauLevenshteinClassifier.Guideword;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import umlTraverse.SysMLGenerator;
+import umlTraverse.SyntheticModelGenerator;
+import umlTraverse.SyntheticModelGenerator.Shape;
+import umlTraverse.TraverseModel;
+
+class SyntheticModelGeneratorTests {
+	Path model;
+
+	@BeforeEach
+	void setup() throws Exception {
+		// Written next to the profiles, as exported models are
+		this.model = Files.createTempFile(Path.of("Diagrams"), "synthetic", ".uml");
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		Files.deleteIfExists(this.model);
+	}
+
+	@Test
+	void testGeneratedModelLoads() throws Exception {
+		Shape shape = new Shape(3, 2, 1, 4, 2, 3, 5);
+		new SyntheticModelGenerator("Diagrams", 1).generate(shape, this.model.toString());
+
+		TraverseModel tm = new TraverseModel(this.model.toString());
+		EList<BasicEList<Behavior>> diagrams = tm.getDiagrams(tm.getModel());
+		assertEquals(6, diagrams.get(0).size());
+		assertEquals(3, diagrams.get(1).size());
+		StateMachine sm = (StateMachine) diagrams.get(0).get(0);
+		assertNotNull(tm.getFirstState(sm));
+		assertEquals(4, tm.getAllStatesFromStateMachine(sm).size());
+
+		// The STPA Library and profiles are where SysMLGenerator expects them
+		UnsafeControlAction uca = new UnsafeControlAction("Machine0_0", Guideword.TOO_LATE, "Signal0",
+				"Signal1->Wait->Signal0", "Invariant");
+		Package generated = new SysMLGenerator(List.of(uca), tm).generateElements();
+		// The UCA's block, its control action and the dependency between them
+		assertEquals(3, generated.getPackagedElements().size());
+	}
+
+	@Test
+	void testShapeOfSize() {
+		Shape shape = Shape.ofSize(100000);
+		long elements = shape.elementCount();
+		assertTrue(elements >= 100000 && elements < 101000, elements + " elements");
+	}
+}
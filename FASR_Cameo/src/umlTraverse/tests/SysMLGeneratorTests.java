@@ -0,0 +1,126 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.uml2.uml.Class;
+import org.eclipse.uml2.uml.Dependency;
+import org.eclipse.uml2.uml.Element;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.PackageableElement;
+import org.eclipse.uml2.uml.Signal;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ucaClassification.DamerauLevenshteinClassifier.Guideword;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import umlTraverse.SysMLGenerator;
+import umlTraverse.TraverseModel;
+
+class SysMLGeneratorTests {
+	TraverseModel waterTankTM;
+	UnsafeControlAction late;
+	UnsafeControlAction early;
+	UnsafeControlAction notProvided;
+
+	@BeforeEach
+	void setup() {
+		this.waterTankTM = new TraverseModel("Diagrams/WaterTank.uml");
+		this.late = new UnsafeControlAction("WaterTank", Guideword.TOO_LATE, "PumpOnCmd",
+				"Init->Wait->PumpOnCmd", "NoOverFlow");
+		this.early = new UnsafeControlAction("WaterTank", Guideword.TOO_EARLY, "PumpOffCmd",
+				"Init->PumpOnCmd->PumpOffCmd", "NoOverFlow");
+		this.notProvided = new UnsafeControlAction("WaterTank", Guideword.NOT_PROVIDING, "AlarmCmd",
+				"Init->PumpOnCmd->Wait", "NoOverFlow");
+	}
+
+	@Test
+	void testUpdateElements() {
+		Package p = new SysMLGenerator(List.of(this.late, this.early), this.waterTankTM).generateElements();
+		Class lateBlock = (Class) p.getPackagedElement(this.late.context());
+		Class earlyBlock = (Class) p.getPackagedElement(this.early.context());
+		Signal pumpOn = (Signal) p.getPackagedElement("PumpOnCmd");
+		Signal pumpOff = (Signal) p.getPackagedElement("PumpOffCmd");
+		assertNotNull(lateBlock);
+		assertNotNull(pumpOn);
+
+		Package updated = new SysMLGenerator(List.of(this.early, this.notProvided), this.waterTankTM)
+				.updateElements();
+		assertSame(p, updated);
+
+		// Kept: the same block and signal, not copies
+		assertSame(earlyBlock, updated.getPackagedElement(this.early.context()));
+		assertSame(pumpOff, updated.getPackagedElement("PumpOffCmd"));
+		assertEquals(1, earlyBlock.getClientDependencies().size());
+
+		// Added
+		Class alarmBlock = (Class) updated.getPackagedElement(this.notProvided.context());
+		assertNotNull(alarmBlock);
+		assertNotNull(updated.getPackagedElement("AlarmCmd"));
+		assertEquals(1, alarmBlock.getGenerals().size());
+
+		// Removed, along with the block's dependency and its now unused signal
+		assertNull(updated.getPackagedElement(this.late.context()));
+		assertNull(updated.getPackagedElement("PumpOnCmd"));
+		assertNull(lateBlock.eResource());
+		assertNull(pumpOn.eResource());
+		for (PackageableElement e : updated.getPackagedElements()) {
+			if (e instanceof Dependency) {
+				for (Element client : ((Dependency) e).getClients()) {
+					assertSame(updated, client.getOwner());
+				}
+			}
+		}
+		assertEquals(6, updated.getPackagedElements().size());
+	}
+
+	@Test
+	void testGenerateReplacesPackage() {
+		new SysMLGenerator(List.of(this.late), this.waterTankTM).generateElements();
+		Package p = new SysMLGenerator(List.of(this.early), this.waterTankTM).generateElements();
+		int generated = 0;
+		for (PackageableElement e : this.waterTankTM.getModel().getPackagedElements()) {
+			if (e instanceof Package && SysMLGenerator.GENERATED_PACKAGE.equals(e.getName())) {
+				generated++;
+			}
+		}
+		assertEquals(1, generated);
+		assertSame(p, this.waterTankTM.getPackageByName(SysMLGenerator.GENERATED_PACKAGE));
+		assertNull(p.getPackagedElement(this.late.context()));
+	}
+
+	@Test
+	void testUpdateElementsKeepsDuplicateKeys() {
+		// The same block key, but a different violated invariant
+		UnsafeControlAction lateOther = new UnsafeControlAction("WaterTank", Guideword.TOO_LATE, "PumpOnCmd",
+				"Init->Wait->PumpOnCmd", "NoUnderFlow");
+		Package p = new SysMLGenerator(List.of(this.late, lateOther), this.waterTankTM).generateElements();
+		List<PackageableElement> before = new ArrayList<PackageableElement>(p.getPackagedElements());
+		assertEquals(2, before.stream().filter(e -> e instanceof Class).count());
+
+		Package updated = new SysMLGenerator(List.of(this.late, lateOther), this.waterTankTM).updateElements();
+		// Nothing changed, so nothing is destroyed or regenerated
+		assertEquals(before, updated.getPackagedElements());
+		for (PackageableElement e : before) {
+			assertNotNull(e.eResource());
+		}
+
+		// One of the pair going away removes one block
+		new SysMLGenerator(List.of(this.late), this.waterTankTM).updateElements();
+		assertEquals(1, updated.getPackagedElements().stream().filter(e -> e instanceof Class).count());
+	}
+
+	@Test
+	void testUnnamedPackage() {
+		this.waterTankTM.getModel().getPackagedElements().add(UMLFactory.eINSTANCE.createPackage());
+		assertNull(this.waterTankTM.getPackageByName(SysMLGenerator.GENERATED_PACKAGE));
+		Package p = new SysMLGenerator(List.of(this.late), this.waterTankTM).updateElements();
+		assertSame(p, this.waterTankTM.getPackageByName(SysMLGenerator.GENERATED_PACKAGE));
+	}
+}
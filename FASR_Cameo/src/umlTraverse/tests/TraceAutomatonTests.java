@@ -0,0 +1,81 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import umlTraverse.TraceAutomaton;
+
+class TraceAutomatonTests {
+	TraceAutomaton pump;
+
+	@BeforeEach
+	void setup() {
+		// initial -> off, off -TurnPumpOn-> on, on -Wait-> on, on -TurnPumpOff-> off,
+		// plus a silent detour through a decision node and an unreachable state
+		TraceAutomaton.Builder builder = new TraceAutomaton.Builder();
+		int initial = builder.addState("initial");
+		int off = builder.addState("off");
+		int on = builder.addState("on");
+		int decision = builder.addState("decision");
+		builder.addState("unreachable");
+		builder.addTransition(initial, null, off);
+		builder.addTransition(off, "TurnPumpOn", on);
+		builder.addTransition(on, null, decision);
+		builder.addTransition(decision, "Wait", on);
+		builder.addTransition(on, "TurnPumpOff", off);
+		this.pump = builder.build(initial);
+	}
+
+	@Test
+	void testCompressedTransitions() {
+		assertEquals(5, pump.getStateCount());
+		assertEquals(5, pump.getTransitionCount());
+		assertEquals(2, pump.getOutDegree(2));
+		assertEquals(TraceAutomaton.SILENT, pump.getLabel(0, 0));
+		assertEquals("TurnPumpOn", pump.getSignal(pump.getLabel(1, 0)));
+	}
+
+	@Test
+	void testReachableStates() {
+		BitSet reachable = pump.getReachableStates();
+		assertEquals(4, reachable.cardinality());
+		assertFalse(reachable.get(4));
+		assertTrue(pump.getSilentClosure(2).get(3));
+	}
+
+	@Test
+	void testEnumerateTraces() {
+		List<List<String>> traces = pump.enumerateTraces(3, Integer.MAX_VALUE);
+		assertEquals(List.of(
+				List.of("TurnPumpOn"),
+				List.of("TurnPumpOn", "Wait"),
+				List.of("TurnPumpOn", "TurnPumpOff"),
+				List.of("TurnPumpOn", "Wait", "Wait"),
+				List.of("TurnPumpOn", "Wait", "TurnPumpOff"),
+				List.of("TurnPumpOn", "TurnPumpOff", "TurnPumpOn")), traces);
+		assertEquals(2, pump.enumerateTraces(3, 2).size());
+	}
+
+	@Test
+	void testLargeAutomaton() {
+		// Closures for every state up front would take tens of gigabytes here
+		TraceAutomaton.Builder builder = new TraceAutomaton.Builder();
+		int states = 400_000;
+		for (int s = 0; s < states; s++) {
+			builder.addState("s" + s);
+		}
+		for (int s = 0; s + 1 < states; s++) {
+			builder.addTransition(s, s % 2 == 0 ? "Step" : null, s + 1);
+		}
+		TraceAutomaton chain = builder.build(0);
+		assertEquals(List.of(List.of("Step"), List.of("Step", "Step")), chain.enumerateTraces(2, Integer.MAX_VALUE));
+		assertEquals(2, chain.getSilentClosure(1).cardinality());
+	}
+}
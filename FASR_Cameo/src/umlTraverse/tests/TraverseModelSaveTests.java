@@ -0,0 +1,86 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.eclipse.uml2.uml.Package;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import umlTraverse.TraverseModel;
+
+class TraverseModelSaveTests {
+	static final FileTime EARLIER = FileTime.fromMillis(0);
+
+	Path model;
+
+	@BeforeEach
+	void setup() throws Exception {
+		// Next to the profiles the model refers to
+		this.model = Files.createTempFile(Path.of("Diagrams"), "save", ".uml");
+		Files.copy(Path.of("Diagrams/WaterTank.uml"), this.model, StandardCopyOption.REPLACE_EXISTING);
+		Files.setLastModifiedTime(this.model, EARLIER);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		Files.deleteIfExists(this.model);
+	}
+
+	@Test
+	void testUnmodifiedModelIsNotSaved() {
+		TraverseModel tm = new TraverseModel(this.model.toString());
+		assertFalse(tm.isModified());
+		assertTrue(tm.updateUML());
+		assertEquals(EARLIER, lastModified());
+	}
+
+	@Test
+	void testModifiedModelIsSaved() throws Exception {
+		TraverseModel tm = new TraverseModel(this.model.toString());
+		tm.getModel().createNestedPackage("Saved Package");
+		assertTrue(tm.isModified());
+		assertTrue(tm.updateUML());
+		assertFalse(tm.isModified());
+		assertTrue(lastModified().compareTo(EARLIER) > 0);
+		assertNotNull(new TraverseModel(this.model.toString()).getPackageByName("Saved Package"));
+		// Nothing is left behind by the save
+		try (Stream<Path> files = Files.list(this.model.getParent())) {
+			assertEquals(0, files.filter(f -> f.getFileName().toString().endsWith(".tmp")).count());
+		}
+	}
+
+	@Test
+	void testSaveKeepsPermissions() throws Exception {
+		assumeTrue(this.model.getFileSystem().supportedFileAttributeViews().contains("posix"));
+		Set<PosixFilePermission> shared = PosixFilePermissions.fromString("rw-rw-r--");
+		Files.setPosixFilePermissions(this.model, shared);
+		TraverseModel tm = new TraverseModel(this.model.toString());
+		Package p = tm.getModel().createNestedPackage("Saved Package");
+		assertNotNull(p);
+		assertTrue(tm.updateUML());
+		assertEquals(shared, Files.getPosixFilePermissions(this.model));
+	}
+
+	FileTime lastModified() {
+		try {
+			return Files.getLastModifiedTime(this.model);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
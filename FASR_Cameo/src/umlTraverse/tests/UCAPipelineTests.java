@@ -0,0 +1,111 @@
+package umlTraverse.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ucaClassification.DamerauLevenshteinClassifier;
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import umlTraverse.UCAPipeline;
+
+class UCAPipelineTests {
+	static final Duration TIMEOUT = Duration.ofSeconds(30);
+	static final Path FORTIS_OUTPUT = Path.of("../UCA_Classification/resources/fortis-out.json");
+
+	DamerauLevenshteinClassifier dlc = new DamerauLevenshteinClassifier();
+
+	// Fails reads once closed, as a file or socket would
+	static class TrackedInputStream extends FilterInputStream {
+		volatile boolean closed;
+
+		TrackedInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (this.closed) {
+				throw new IOException("Stream closed");
+			}
+			return super.read(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.closed = true;
+			super.close();
+		}
+	}
+
+	@Test
+	void testProducerErrorReachesConsumer() {
+		InputStream broken = new InputStream() {
+			@Override
+			public int read() {
+				throw new StackOverflowError("read failed");
+			}
+		};
+		StackOverflowError e = assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(StackOverflowError.class,
+				() -> UCAPipeline.run(this.dlc, broken, 1, pipeline -> pipeline.hasNext())));
+		assertEquals("read failed", e.getMessage());
+	}
+
+	@Test
+	void testConsumerFailureStopsProducer() throws Exception {
+		byte[] fortisOutput = Files.readAllBytes(FORTIS_OUTPUT);
+		TrackedInputStream in = new TrackedInputStream(new ByteArrayInputStream(fortisOutput));
+		assertTimeoutPreemptively(TIMEOUT, () -> assertThrows(IllegalStateException.class,
+				() -> UCAPipeline.run(this.dlc, in, 1, pipeline -> {
+					// Let the producer fill the buffer and block before failing
+					pipeline.hasNext();
+					throw new IllegalStateException("generator failed");
+				})));
+		assertTrue(in.closed);
+		for (Thread t : Thread.getAllStackTraces().keySet()) {
+			if (t.getName().equals("UCA classifier")) {
+				t.join(TIMEOUT.toMillis());
+				assertFalse(t.isAlive());
+			}
+		}
+	}
+
+	@Test
+	void testSkipsUnclassifiablePairs() throws Exception {
+		List<TracePair> pairs = new ArrayList<TracePair>();
+		try (var it = DamerauLevenshteinClassifier.readFortisOutput(Files.newInputStream(FORTIS_OUTPUT))) {
+			it.forEachRemaining(pairs::add);
+		}
+		LinkedHashSet<UnsafeControlAction> expected = new LinkedHashSet<UnsafeControlAction>(
+				this.dlc.classifyAll(pairs, (pair, e) -> {
+				}));
+		expected.remove(null);
+
+		// The last pair's traces are identical, so it can't be classified
+		List<TracePair> skipped = new ArrayList<TracePair>();
+		List<UnsafeControlAction> actual = assertTimeoutPreemptively(TIMEOUT,
+				() -> UCAPipeline.run(this.dlc, Files.newInputStream(FORTIS_OUTPUT), 1,
+						(pair, e) -> skipped.add(pair), pipeline -> {
+							List<UnsafeControlAction> ucas = new ArrayList<UnsafeControlAction>();
+							pipeline.forEachRemaining(ucas::add);
+							return ucas;
+						}));
+		assertEquals(new ArrayList<UnsafeControlAction>(expected), actual);
+		assertEquals(List.of(pairs.get(pairs.size() - 1)), skipped);
+	}
+}
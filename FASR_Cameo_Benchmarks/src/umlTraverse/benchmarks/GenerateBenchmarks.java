@@ -0,0 +1,102 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.uml2.uml.Package;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import umlTraverse.SysMLGenerator;
+import umlTraverse.TraverseModel;
+
+/*
+ * Generating the elements for a set of UCAs, and saving the result. Each
+ * call replaces the package the previous call generated, as a fresh run of
+ * the generator against an already generated model would.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerateBenchmarks {
+	@Param({ "10", "1000", "100000" })
+	public int ucaCount;
+
+	private Path path;
+	private TraverseModel tm;
+	private List<UnsafeControlAction> ucas;
+	private Package generated;
+	private boolean renamed;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.path = ModelFixtures.copyModel(0);
+		this.tm = new TraverseModel(this.path.toString());
+		this.ucas = ModelFixtures.ucas(this.ucaCount);
+		this.generated = new SysMLGenerator(this.ucas, this.tm).generateElements();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		ModelFixtures.delete(this.path);
+	}
+
+	@Benchmark
+	public Package generateElements() {
+		return new SysMLGenerator(this.ucas, this.tm).generateElements();
+	}
+
+	@Benchmark
+	public Package updateElements() {
+		// Nothing has changed, so this measures the cost of finding that out
+		return new SysMLGenerator(this.ucas, this.tm).updateElements();
+	}
+
+	@Benchmark
+	public boolean updateUML() {
+		// A change is needed, or updateUML has nothing to save
+		this.renamed = !this.renamed;
+		this.generated.setName(this.renamed ? SysMLGenerator.GENERATED_PACKAGE + " " : SysMLGenerator.GENERATED_PACKAGE);
+		return this.tm.updateUML();
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.uml2.uml.Behavior;
+import org.eclipse.uml2.uml.NamedElement;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.SignalEvent;
+import org.eclipse.uml2.uml.StateMachine;
+import org.eclipse.uml2.uml.Transition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import umlTraverse.TraverseModel;
+
+/*
+ * Loading models and the queries made of them while generating elements.
+ * UML2 and JMH both have a State, so the UML one is written out in full.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBenchmarks {
+
+	/*
+	 * WaterTank.uml, and copies of it enlarged with copies of its contents
+	 */
+	@State(Scope.Benchmark)
+	public static class ModelFile {
+		@Param({ "0", "10", "100" })
+		public int copies;
+
+		public Path path;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			this.path = ModelFixtures.copyModel(this.copies);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			ModelFixtures.delete(this.path);
+		}
+	}
+
+	/*
+	 * Generated models of 10^5 and 10^6 elements
+	 */
+	@State(Scope.Benchmark)
+	public static class SyntheticModelFile {
+		@Param({ "100000", "1000000" })
+		public long elements;
+
+		public Path path;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			this.path = ModelFixtures.syntheticModel(this.elements);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			ModelFixtures.delete(this.path);
+		}
+	}
+
+	/*
+	 * A loaded WaterTank.uml and a state machine and state to query
+	 */
+	@State(Scope.Benchmark)
+	public static class LoadedModel {
+		public Path path;
+		public TraverseModel tm;
+		public StateMachine machine;
+		public org.eclipse.uml2.uml.State state;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			this.path = ModelFixtures.copyModel(0);
+			this.tm = new TraverseModel(this.path.toString());
+			for (Behavior b : this.tm.getDiagrams(this.tm.getModel()).get(0)) {
+				if (b instanceof StateMachine) {
+					this.machine = (StateMachine) b;
+					break;
+				}
+			}
+			if (this.machine == null) {
+				throw new IllegalStateException(ModelFixtures.MODEL + " has no Machine state machine");
+			}
+			this.state = this.tm.getFirstState(this.machine);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			ModelFixtures.delete(this.path);
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Package loadModel(ModelFile file) {
+		return new TraverseModel().loadModel(file.path.toString());
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Package loadSyntheticModel(SyntheticModelFile file) {
+		return new TraverseModel().loadModel(file.path.toString());
+	}
+
+	@Benchmark
+	public EList<BasicEList<Behavior>> getDiagrams(LoadedModel m) {
+		return m.tm.getDiagrams(m.tm.getModel());
+	}
+
+	@Benchmark
+	public org.eclipse.uml2.uml.State getFirstState(LoadedModel m) {
+		return m.tm.getFirstState(m.machine);
+	}
+
+	@Benchmark
+	public void transitionQueries(LoadedModel m, Blackhole bh) {
+		bh.consume(m.tm.getTransitionsToState(m.state, Boolean.TRUE));
+		EList<Transition> out = m.tm.getTransitionsFromState(m.state);
+		for (Transition t : out) {
+			if (!t.getTriggers().isEmpty() && t.getTriggers().get(0).getEvent() instanceof SignalEvent) {
+				bh.consume(m.tm.getTransitionTrigger(t));
+			}
+		}
+	}
+
+	@Benchmark
+	public NamedElement findByQualifiedName(LoadedModel m) {
+		return m.tm.findByQualifiedName(ModelFixtures.LIBRARY + "Late");
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package umlTraverse.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.Package;
+import org.eclipse.uml2.uml.PackageableElement;
+import org.eclipse.uml2.uml.UMLFactory;
+
+import ucaClassification.DamerauLevenshteinClassifier.Guideword;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import umlTraverse.SyntheticModelGenerator;
+import umlTraverse.SyntheticModelGenerator.Shape;
+import umlTraverse.TraverseModel;
+
+/*
+ * Models and UCAs shared by the benchmarks.
+ *
+ * The models are copies of WaterTank.uml, or generated models, written next
+ * to it so that they can still reach the profiles it references. Each benchmark deletes its
+ * copies when it finishes.
+ */
+final class ModelFixtures {
+	// The directory holding WaterTank.uml and its profiles
+	static final String DIAGRAMS_PROPERTY = "fasr.benchmarks.diagrams";
+	static final String MODEL = "WaterTank.uml";
+	static final String LIBRARY = "Model::CMOF 2.0 Validation::STPA Library::";
+
+	private static final int CONTROL_ACTIONS = 50;
+
+	private ModelFixtures() {
+	}
+
+	static Path diagrams() {
+		return Path.of(System.getProperty(DIAGRAMS_PROPERTY, "../FASR_Cameo/Diagrams")).toAbsolutePath();
+	}
+
+	/*
+	 * Copies WaterTank.uml, enlarged with copies of its own contents
+	 *
+	 * @param copies	the number of copies of the model's contents to add;
+	 * 					0 for a plain copy
+	 * @return			the new model file
+	 */
+	static Path copyModel(int copies) throws IOException {
+		Path source = diagrams().resolve(MODEL);
+		Path target = Files.createTempFile(diagrams(), "WaterTank-x" + copies + "-", ".uml");
+		Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+		if (copies == 0) {
+			return target;
+		}
+		TraverseModel tm = new TraverseModel(target.toString());
+		Package model = tm.getModel();
+		List<PackageableElement> original = new ArrayList<PackageableElement>(model.getPackagedElements());
+		for (int i = 1; i <= copies; i++) {
+			Package copy = UMLFactory.eINSTANCE.createPackage();
+			copy.setName("Copy " + i);
+			for (PackageableElement e : original) {
+				copy.getPackagedElements().add(EcoreUtil.copy(e));
+			}
+			model.getPackagedElements().add(copy);
+		}
+		if (!tm.updateUML()) {
+			throw new IOException("Unable to save " + target);
+		}
+		return target;
+	}
+
+	/*
+	 * Generates a model with about the given number of elements
+	 *
+	 * @param elements	the size of the model
+	 * @return			the new model file
+	 */
+	static Path syntheticModel(long elements) throws IOException {
+		Path target = Files.createTempFile(diagrams(), "synthetic-" + elements + "-", ".uml");
+		new SyntheticModelGenerator(diagrams().toString(), 0).generate(Shape.ofSize(elements), target.toString());
+		return target;
+	}
+
+	/*
+	 * Makes distinct UCAs spread over every guideword and a fixed set of
+	 * control actions, as a large Fortis run would produce
+	 */
+	static List<UnsafeControlAction> ucas(int count) {
+		Guideword[] guidewords = Guideword.values();
+		List<UnsafeControlAction> result = new ArrayList<UnsafeControlAction>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(new UnsafeControlAction("WaterTank", guidewords[i % guidewords.length],
+					"Action" + (i % CONTROL_ACTIONS), "Init->Step" + i + "->Wait", "NoOverFlow"));
+		}
+		return result;
+	}
+
+	static void delete(Path model) throws IOException {
+		if (model != null) {
+			Files.deleteIfExists(model);
+		}
+	}
+}
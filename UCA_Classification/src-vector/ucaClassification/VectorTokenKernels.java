@@ -0,0 +1,94 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link TokenKernels} using the incubating Vector API, comparing as many
+ * actions at a time as the CPU's widest vectors hold (8 with AVX2, 16 with
+ * AVX-512). Each kernel finishes the part of the trace that doesn't fill a
+ * whole vector with the scalar loop.
+ * 
+ * This class is kept out of the bundle's sources, since it can only be
+ * compiled and loaded with {@code --add-modules jdk.incubator.vector}. It is
+ * built into the standalone jar by {@code mvn package -Pvector}, and only ever
+ * loaded reflectively by {@link TokenKernels#get()}.
+ */
+class VectorTokenKernels extends TokenKernels {
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	private static final IntVector ZERO = IntVector.zero(SPECIES);
+
+	@Override
+	String getName() {
+		return "vector " + SPECIES.vectorBitSize() + "-bit";
+	}
+
+	@Override
+	int mismatch(int[] a, int[] b) {
+		int length = Math.min(a.length, b.length);
+		int bound = SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length()) {
+			VectorMask<Integer> differs = IntVector.fromArray(SPECIES, a, i)
+					.compare(VectorOperators.NE, IntVector.fromArray(SPECIES, b, i));
+			if (differs.anyTrue()) {
+				return i + differs.firstTrue();
+			}
+		}
+		for (; i < length; i++) {
+			if (a[i] != b[i]) {
+				return i;
+			}
+		}
+		return a.length == b.length ? -1 : length;
+	}
+
+	@Override
+	int count(int[] tokens, int from, int to, int token) {
+		int bound = from + SPECIES.loopBound(to - from);
+		int count = 0;
+		int i = from;
+		for (; i < bound; i += SPECIES.length()) {
+			count += IntVector.fromArray(SPECIES, tokens, i).compare(VectorOperators.EQ, token).trueCount();
+		}
+		return count + super.count(tokens, i, to, token);
+	}
+
+	@Override
+	void mismatches(int[] tokens, int token, int[] result) {
+		int bound = SPECIES.loopBound(tokens.length);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length()) {
+			VectorMask<Integer> differs = IntVector.fromArray(SPECIES, tokens, i).compare(VectorOperators.NE, token);
+			ZERO.blend(1, differs).intoArray(result, i);
+		}
+		for (; i < tokens.length; i++) {
+			result[i] = tokens[i] == token ? 0 : 1;
+		}
+	}
+}
@@ -0,0 +1,240 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.Traces;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/**
+ * Classifies a file of Fortis output while recording progress in a journal, so
+ * that a run that is killed can be restarted where it left off.
+ * 
+ * The journal has one JSON object per line: first a fingerprint of the input,
+ * then each distinct UnsafeControlAction as it is found, and every so often a
+ * checkpoint giving the number of pairs read so far. A journal whose
+ * fingerprint doesn't match the input is refused rather than resumed. The
+ * journal is only forced to disk at checkpoints. On restart, anything after the
+ * last checkpoint is discarded and the pairs after it are classified again, so
+ * the result is the same as that of an uninterrupted run. As with the --file
+ * mode, pairs that can't be classified are reported and skipped.
+ */
+public class CheckpointedRun {
+
+	/**
+	 * The number of pairs between checkpoints by default
+	 */
+	public static final int DEFAULT_INTERVAL = 1000;
+
+	/**
+	 * The number of bytes at the start of the input that its fingerprint hashes
+	 */
+	private static final int FINGERPRINT_BYTES = 64 * 1024;
+
+	/**
+	 * One line of the journal: a result, a checkpoint, or the input's fingerprint
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	record Entry(UnsafeControlAction uca, Integer checkpoint, String input) {
+	};
+
+	private static final ObjectWriter ENTRY_WRITER = new ObjectMapper().writerFor(Entry.class);
+	private static final ObjectReader ENTRY_READER = new ObjectMapper().readerFor(Entry.class);
+
+	private DamerauLevenshteinClassifier dlc;
+	private Path journal;
+	private int interval;
+
+	/**
+	 * Creates a run
+	 * 
+	 * @param dlc      The classifier
+	 * @param journal  The journal file; a run resumes from it if it exists
+	 * @param interval The number of pairs between checkpoints
+	 */
+	public CheckpointedRun(DamerauLevenshteinClassifier dlc, Path journal, int interval) {
+		this.dlc = dlc;
+		this.journal = journal;
+		this.interval = interval;
+	}
+
+	/**
+	 * Classifies a file of Fortis output, resuming from the journal if an earlier
+	 * run was interrupted
+	 * 
+	 * @param input The Fortis output
+	 * @return Each distinct UnsafeControlAction, in input order
+	 * @throws IOException If the input or journal can't be read, the journal
+	 *                     can't be written, or the journal is for another input
+	 */
+	public List<UnsafeControlAction> run(Path input) throws IOException {
+		Set<UnsafeControlAction> results = new LinkedHashSet<>();
+		String fingerprint = fingerprint(input);
+		int done = recover(results, fingerprint);
+		Map<Traces, UnsafeControlAction> classes = DamerauLevenshteinClassifier.recentClasses();
+
+		try (FileChannel channel = FileChannel.open(this.journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+				Writer out = Channels.newWriter(channel, StandardCharsets.UTF_8);
+				InputStream in = TraceCodecs.open(input);
+				MappingIterator<TracePair> pairs = DamerauLevenshteinClassifier.readFortisOutput(in)) {
+			if (channel.size() == 0) {
+				write(out, new Entry(null, null, fingerprint));
+			}
+			int read = 0;
+			while (pairs.hasNextValue()) {
+				TracePair pair = DamerauLevenshteinClassifier.nextPair(pairs);
+				read++;
+				// Pairs before the checkpoint are parsed again, but not classified
+				if (read <= done) {
+					continue;
+				}
+				try {
+					UnsafeControlAction uca = this.dlc.classify(pair, classes);
+					if (results.add(uca)) {
+						write(out, new Entry(uca, null, null));
+					}
+				} catch (RuntimeException e) {
+					System.err.println("Skipping " + pair + ": " + e.getMessage());
+				}
+				if (read % this.interval == 0) {
+					checkpoint(out, channel, read);
+				}
+			}
+			if (read > done) {
+				checkpoint(out, channel, read);
+			}
+		}
+		return new ArrayList<>(results);
+	}
+
+	/**
+	 * Reads the results up to the journal's last checkpoint, and truncates the
+	 * journal there
+	 * 
+	 * @param results     Receives the recovered results
+	 * @param fingerprint The fingerprint of the input being classified
+	 * @return The number of pairs read at the last checkpoint
+	 * @throws IOException If the journal can't be read or truncated, or was
+	 *                     written for another input
+	 */
+	private int recover(Set<UnsafeControlAction> results, String fingerprint) throws IOException {
+		if (!Files.exists(this.journal)) {
+			return 0;
+		}
+		List<UnsafeControlAction> pending = new ArrayList<>();
+		int done = 0;
+		long end = 0;
+		long offset = 0;
+		try (BufferedReader reader = Files.newBufferedReader(this.journal, StandardCharsets.UTF_8)) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+				Entry entry;
+				try {
+					entry = ENTRY_READER.readValue(line);
+				} catch (IOException e) {
+					// A line cut short when the last run was killed
+					break;
+				}
+				if (end == 0) {
+					// The first line says which input the journal is for
+					if (!fingerprint.equals(entry.input())) {
+						throw new IOException(
+								"The journal " + this.journal + " was written for a different input; remove it to start over");
+					}
+					end = offset;
+				} else if (entry.checkpoint() != null) {
+					results.addAll(pending);
+					pending.clear();
+					done = entry.checkpoint();
+					end = offset;
+				} else if (entry.uca() != null) {
+					pending.add(entry.uca());
+				}
+			}
+		}
+		try (FileChannel channel = FileChannel.open(this.journal, StandardOpenOption.WRITE)) {
+			channel.truncate(end);
+		}
+		return done;
+	}
+
+	/**
+	 * Identifies an input by its size and a hash of its first bytes, which is
+	 * enough to tell one run's Fortis output from another's without reading it
+	 * all
+	 * 
+	 * @param input The input file
+	 * @return The fingerprint
+	 * @throws IOException If the input can't be read
+	 */
+	static String fingerprint(Path input) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		try (InputStream in = Files.newInputStream(input)) {
+			digest.update(in.readNBytes(FINGERPRINT_BYTES));
+		}
+		return Files.size(input) + ":" + HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void write(Writer out, Entry entry) throws IOException {
+		out.write(ENTRY_WRITER.writeValueAsString(entry));
+		out.write('\n');
+	}
+
+	private static void checkpoint(Writer out, FileChannel channel, int read) throws IOException {
+		write(out, new Entry(null, read, null));
+		out.flush();
+		channel.force(false);
+	}
+}
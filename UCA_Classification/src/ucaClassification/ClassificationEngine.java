@@ -0,0 +1,110 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import java.util.List;
+
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/**
+ * Finds the edit that turns a safe trace into an unsafe one and classifies it.
+ * {@link DamerauLevenshteinClassifier} handles activities and other special
+ * cases itself and hands the remaining pairs to an engine.
+ * 
+ * {@link DamerauLevenshteinEngine} is the reference implementation. Other
+ * engines trade generality for speed or memory, and must give the same
+ * UnsafeControlAction as the reference for every pair they accept. They are
+ * found with {@link java.util.ServiceLoader}, so an engine in another jar is
+ * registered by naming it in
+ * META-INF/services/ucaClassification.ClassificationEngine.
+ */
+public interface ClassificationEngine {
+
+	/**
+	 * The size of a pair of traces and what is available to classify it with
+	 * 
+	 * @param safeLength      The length of the safe trace
+	 * @param unsafeLength    The length of the unsafe trace
+	 * @param distanceBound   An upper bound on the edit distance between the
+	 *                        traces
+	 * @param availableMemory The bytes the JVM can still allocate
+	 */
+	public record Workload(int safeLength, int unsafeLength, int distanceBound, long availableMemory) {
+
+		/**
+		 * Measures a pair of traces. The edit distance is at most the length of the
+		 * longer trace once their common prefix and suffix are removed.
+		 */
+		public static Workload of(List<String> safe, List<String> unsafe) {
+			int shorter = Math.min(safe.size(), unsafe.size());
+			int prefix = 0;
+			while (prefix < shorter && safe.get(prefix).equals(unsafe.get(prefix))) {
+				prefix++;
+			}
+			int suffix = 0;
+			while (suffix < shorter - prefix
+					&& safe.get(safe.size() - 1 - suffix).equals(unsafe.get(unsafe.size() - 1 - suffix))) {
+				suffix++;
+			}
+			Runtime runtime = Runtime.getRuntime();
+			long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+			return new Workload(safe.size(), unsafe.size(),
+					Math.max(safe.size(), unsafe.size()) - prefix - suffix, available);
+		}
+
+		/**
+		 * @return The number of cells in a full edit-distance table for the traces
+		 */
+		public long cells() {
+			return (long) (safeLength + 2) * (unsafeLength + 2);
+		}
+	};
+
+	/**
+	 * @return A short name used when reporting which engine classified a pair
+	 */
+	public String getName();
+
+	/**
+	 * Decides whether this engine should classify a pair of traces
+	 * 
+	 * @param workload The size of the pair
+	 * @return True if this engine can classify the pair, and is a better choice
+	 *         than the reference for it
+	 */
+	public boolean accepts(Workload workload);
+
+	/**
+	 * Classifies a pair of traces that aren't identical
+	 * 
+	 * @param safe          A safe trace of system behaviors
+	 * @param unsafe        An unsafe trace of system behaviors
+	 * @param invariantName The name of the safety property that is violated by the
+	 *                      unsafe trace but not the safe trace.
+	 * @param sourceName    The name of the component that violates it
+	 * @return The UnsafeControlAction associated with these traces
+	 */
+	public UnsafeControlAction classify(List<String> safe, List<String> unsafe, String invariantName,
+			String sourceName);
+}
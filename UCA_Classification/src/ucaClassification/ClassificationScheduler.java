@@ -0,0 +1,210 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+
+import ucaClassification.DamerauLevenshteinClassifier.Activity;
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/**
+ * Classifies pairs in parallel without letting their tables exhaust the heap.
+ * 
+ * Each pair's table size is estimated up front, and a pair only starts once
+ * that much of a fixed memory budget is free. Pairs are started largest first,
+ * so a few huge pairs don't end up running together at the end while the
+ * small ones are long done. Pairs whose table wouldn't fit in the budget at all
+ * are classified with {@link LinearSpaceEngine} instead.
+ */
+public class ClassificationScheduler {
+
+	/**
+	 * The system property holding the default budget, in bytes, eg
+	 * -Dfasr.classifier.heapBudget=2000000000
+	 */
+	public static final String BUDGET_PROPERTY = "fasr.classifier.heapBudget";
+
+	/**
+	 * The budget is handed out in units of this many bytes, so that large budgets
+	 * fit in a semaphore's int permits
+	 */
+	private static final int UNIT = 1024;
+
+	/**
+	 * Memory used by LinearSpaceEngine for each cell of a row it keeps: an int and
+	 * a reference
+	 */
+	private static final int LINEAR_BYTES_PER_CELL = 12;
+
+	private DamerauLevenshteinClassifier classifier;
+	private DamerauLevenshteinClassifier lowMemoryClassifier;
+	private int threads;
+	private long budget;
+
+	/**
+	 * Creates a scheduler with one thread per processor and the budget from
+	 * {@link #BUDGET_PROPERTY}, or half the maximum heap
+	 * 
+	 * @param activities Activities that may be encountered in the traces
+	 */
+	public ClassificationScheduler(Map<String, Activity> activities) {
+		this(activities, Runtime.getRuntime().availableProcessors(),
+				Long.getLong(BUDGET_PROPERTY, Runtime.getRuntime().maxMemory() / 2));
+	}
+
+	/**
+	 * Creates a scheduler
+	 * 
+	 * @param activities Activities that may be encountered in the traces
+	 * @param threads    The number of pairs classified at once
+	 * @param budget     The bytes the tables of the pairs being classified may
+	 *                   take between them
+	 */
+	public ClassificationScheduler(Map<String, Activity> activities, int threads, long budget) {
+		this.classifier = new DamerauLevenshteinClassifier(activities);
+		this.lowMemoryClassifier = new DamerauLevenshteinClassifier(activities, new LinearSpaceEngine(0));
+		this.threads = threads;
+		this.budget = budget;
+	}
+
+	/**
+	 * Classifies pairs in parallel, giving the same results as classifying each of
+	 * them
+	 * 
+	 * @param pairs    The pairs to classify
+	 * @param failures Told, in input order, about each pair that can't be
+	 *                 classified and why
+	 * @return The UnsafeControlAction for each pair, in input order, or null for
+	 *         pairs that can't be classified
+	 * @throws InterruptedException If interrupted while waiting for the pairs
+	 * @throws Error                If classifying a pair threw one
+	 */
+	public List<UnsafeControlAction> classifyAll(List<TracePair> pairs,
+			BiConsumer<TracePair, RuntimeException> failures) throws InterruptedException {
+		UnsafeControlAction[] results = new UnsafeControlAction[pairs.size()];
+		RuntimeException[] errors = new RuntimeException[pairs.size()];
+		int totalUnits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, this.budget / UNIT));
+		Semaphore memory = new Semaphore(totalUnits, true);
+
+		List<Integer> order = new ArrayList<>();
+		long[] footprints = new long[pairs.size()];
+		for (int k = 0; k < pairs.size(); k++) {
+			footprints[k] = footprint(pairs.get(k));
+			order.add(k);
+		}
+		order.sort(Comparator.comparingLong((Integer k) -> footprints[k]).reversed());
+
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int k : order) {
+			TracePair pair = pairs.get(k);
+			boolean spill = footprints[k] > this.budget;
+			long bytes = spill ? lowMemoryFootprint(pair) : footprints[k];
+			// Rounded up, so the pairs in flight never hold more than the budget
+			int units = (int) Math.min(totalUnits, Math.max(1, (bytes + UNIT - 1) / UNIT));
+			DamerauLevenshteinClassifier dlc = spill ? this.lowMemoryClassifier : this.classifier;
+			tasks.add(() -> {
+				memory.acquire(units);
+				try {
+					results[k] = classify(dlc, pair);
+				} catch (RuntimeException e) {
+					errors[k] = e;
+				} finally {
+					memory.release(units);
+				}
+				return null;
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.threads, Math.max(1, pairs.size())));
+		List<Future<Void>> futures;
+		try {
+			// Tasks start in the order they are listed, so largest first
+			futures = executor.invokeAll(tasks);
+		} finally {
+			executor.shutdownNow();
+		}
+		for (Future<Void> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				// Only an Error or an interrupted acquire get past the task's catch
+				if (e.getCause() instanceof Error error) {
+					throw error;
+				} else if (e.getCause() instanceof InterruptedException interrupted) {
+					throw interrupted;
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+		for (int k = 0; k < pairs.size(); k++) {
+			if (errors[k] != null) {
+				failures.accept(pairs.get(k), errors[k]);
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Classifies one pair, once its share of the budget is held
+	 * 
+	 * @param dlc  The classifier chosen for the pair's size
+	 * @param pair The pair to classify
+	 * @return The pair's UnsafeControlAction
+	 */
+	protected UnsafeControlAction classify(DamerauLevenshteinClassifier dlc, TracePair pair) {
+		return dlc.classify(pair);
+	}
+
+	/**
+	 * Estimates the memory the reference engine's table takes for a pair
+	 * 
+	 * @param pair The pair to estimate
+	 * @return The estimate, in bytes
+	 */
+	public static long footprint(TracePair pair) {
+		return (long) (pair.goodTrace().size() + 2) * (pair.badTrace().size() + 2)
+				* DamerauLevenshteinEngine.BYTES_PER_CELL;
+	}
+
+	/**
+	 * Estimates the memory LinearSpaceEngine takes for a pair: a row for each
+	 * distinct unsafe action, and two more
+	 */
+	static long lowMemoryFootprint(TracePair pair) {
+		long rows = pair.badTrace().stream().distinct().count() + 3;
+		return rows * (pair.badTrace().size() + 2) * LINEAR_BYTES_PER_CELL;
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the classifier: parsing and classifying each
+ * pair, classifying a batch, and reading a whole file with --file.
+ * 
+ * The per-pair events are disabled by default, so that a recording made with
+ * the JDK's own settings isn't flooded with them.
+ */
+public final class ClassifierEvents {
+
+	private ClassifierEvents() {
+	}
+
+	@Name("fasr.classifier.Parse")
+	@Label("Parse Trace Pair")
+	@Description("Jackson parsing one trace pair of Fortis output")
+	@Category({ "FASR", "Classifier" })
+	@Enabled(false)
+	@StackTrace(false)
+	public static class Parse extends Event {
+		@Label("Safe Trace Length")
+		public int safeLength;
+
+		@Label("Unsafe Trace Length")
+		public int unsafeLength;
+	}
+
+	@Name("fasr.classifier.Classify")
+	@Label("Classify Trace Pair")
+	@Description("Classifying one pair of traces")
+	@Category({ "FASR", "Classifier" })
+	@Enabled(false)
+	@StackTrace(false)
+	public static class Classify extends Event {
+		@Label("Safe Trace Length")
+		public int safeLength;
+
+		@Label("Unsafe Trace Length")
+		public int unsafeLength;
+
+		@Label("Table Cells")
+		@Description("The cells in a full edit-distance table for the traces")
+		public long cells;
+
+		@Label("Special Case")
+		@Description("Classified by the activity or delay checks rather than an engine")
+		public boolean specialCase;
+
+		@Label("Guideword")
+		public String guideword;
+
+		@Label("Control Action")
+		public String controlAction;
+	}
+
+	@Name("fasr.classifier.ClassifyBatch")
+	@Label("Classify Batch")
+	@Description("Classifying a batch of pairs that share edit-distance work")
+	@Category({ "FASR", "Classifier" })
+	@StackTrace(false)
+	public static class ClassifyBatch extends Event {
+		@Label("Pairs")
+		public int pairs;
+
+		@Label("Failures")
+		@Description("Pairs that couldn't be classified")
+		public int failures;
+	}
+
+	@Name("fasr.classifier.ReadFile")
+	@Label("Read Fortis Output")
+	@Description("Reading, parsing and classifying a whole file of Fortis output with --file")
+	@Category({ "FASR", "Classifier" })
+	@StackTrace(false)
+	public static class ReadFile extends Event {
+		@Label("Path")
+		public String path;
+
+		@Label("File Size")
+		@DataAmount
+		public long bytes;
+
+		@Label("Pairs")
+		public int pairs;
+	}
+}
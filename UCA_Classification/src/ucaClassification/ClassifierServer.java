@@ -0,0 +1,255 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/**
+ * Keeps a classifier resident behind a localhost HTTP endpoint, so that callers
+ * that classify many small batches of Fortis output pay for JVM startup, class
+ * loading and JIT warm-up once rather than on every invocation.
+ *
+ * <ul>
+ * <li>POST /classify -- the body is Fortis output, either as the JSON array
+ * Fortis prints or as newline-delimited trace pair objects, and may be
+ * compressed with any {@link TraceCodec}. Each distinct UnsafeControlAction is
+ * streamed back as one line of JSON as soon as it is found. As with --file, a
+ * pair that can't be classified is skipped and reported on stderr. Input that
+ * can't be read gives a 400 response if nothing has been sent yet; otherwise
+ * the error is reported as a final {"error": ...} line.
+ * <li>POST /shutdown -- stops accepting requests, lets in-flight requests
+ * finish, and stops the server.
+ * </ul>
+ *
+ * The server only binds to the loopback address.
+ */
+public class ClassifierServer {
+	public static final int DEFAULT_PORT = 8484;
+
+	/**
+	 * How long in-flight requests are given to finish when the server is stopped
+	 */
+	private static final int SHUTDOWN_GRACE_SECONDS = 5;
+
+	private static final ObjectWriter UCA_WRITER = new ObjectMapper().writerFor(UnsafeControlAction.class);
+	private static final ObjectWriter ERROR_WRITER = new ObjectMapper().writer();
+
+	private DamerauLevenshteinClassifier dlc;
+	private HttpServer server;
+	private ExecutorService workers;
+	private CountDownLatch stopped;
+
+	/**
+	 * Creates a server for the supplied classifier; call {@link #start()} to begin
+	 * accepting requests
+	 *
+	 * @param dlc     The classifier requests are handled with
+	 * @param port    The loopback port to listen on; 0 picks a free port
+	 * @param threads The number of requests handled at once
+	 * @throws IOException If the port can't be bound
+	 */
+	public ClassifierServer(DamerauLevenshteinClassifier dlc, int port, int threads) throws IOException {
+		this.dlc = dlc;
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.workers = Executors.newFixedThreadPool(threads);
+		this.stopped = new CountDownLatch(1);
+		this.server.setExecutor(this.workers);
+		this.server.createContext("/classify", this::classify);
+		this.server.createContext("/shutdown", this::shutdown);
+	}
+
+	/**
+	 * Starts a server on the given port and blocks until it is shut down, either
+	 * through /shutdown or by the JVM exiting
+	 *
+	 * @param port The loopback port to listen on
+	 * @throws IOException If the port can't be bound
+	 */
+	public static void run(int port) throws IOException {
+		ClassifierServer server = new ClassifierServer(new DamerauLevenshteinClassifier(), port,
+				Runtime.getRuntime().availableProcessors());
+		Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+		server.start();
+		System.err.println("Classifier listening on http://127.0.0.1:" + server.getPort() + "/classify");
+		server.awaitStop();
+	}
+
+	public void start() {
+		this.server.start();
+	}
+
+	/**
+	 * @return The port the server is listening on
+	 */
+	public int getPort() {
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops accepting requests and waits for in-flight requests to finish. Safe to
+	 * call more than once.
+	 */
+	public synchronized void stop() {
+		if (this.stopped.getCount() == 0) {
+			return;
+		}
+		this.server.stop(SHUTDOWN_GRACE_SECONDS);
+		this.workers.shutdown();
+		try {
+			this.workers.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.stopped.countDown();
+	}
+
+	/**
+	 * Blocks until the server has stopped
+	 */
+	public void awaitStop() {
+		try {
+			this.stopped.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void classify(HttpExchange exchange) throws IOException {
+		if (!"POST".equals(exchange.getRequestMethod())) {
+			respond(exchange, 405, "Use POST");
+			return;
+		}
+		exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+		try (InputStream in = TraceCodecs.open(exchange.getRequestBody())) {
+			StreamingResponse response = new StreamingResponse(exchange);
+			try {
+				this.dlc.classifyFortisOutput(in, response,
+						(pair, e) -> System.err.println("Skipping " + pair + ": " + e.getMessage()));
+			} catch (IOException | RuntimeException e) {
+				if (!response.started) {
+					respond(exchange, 400, e.getMessage());
+					return;
+				}
+				// The status has already been sent, so the failure is reported as
+				// the last line of the response instead
+				response.fail(e);
+			}
+			response.finish();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void shutdown(HttpExchange exchange) throws IOException {
+		if (!"POST".equals(exchange.getRequestMethod())) {
+			respond(exchange, 405, "Use POST");
+			return;
+		}
+		respond(exchange, 202, "Shutting down");
+		// stop() waits for this exchange, so it can't run on this worker
+		Thread stopper = new Thread(this::stop, "classifier shutdown");
+		stopper.start();
+	}
+
+	private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+		byte[] body = ((message == null ? "" : message) + "\n").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * Writes each UCA as a line of JSON, sending the response headers with the
+	 * first one so that errors found before any output can still be reported
+	 * with an error status
+	 */
+	private static class StreamingResponse implements Consumer<UnsafeControlAction> {
+		private HttpExchange exchange;
+		private OutputStream out;
+		private boolean started;
+
+		StreamingResponse(HttpExchange exchange) {
+			this.exchange = exchange;
+			this.started = false;
+		}
+
+		@Override
+		public void accept(UnsafeControlAction uca) {
+			try {
+				writeLine(UCA_WRITER.writeValueAsBytes(uca));
+			} catch (JsonProcessingException e) {
+				throw new IllegalArgumentException(e);
+			} catch (IOException e) {
+				throw new IllegalStateException("The client went away", e);
+			}
+		}
+
+		void fail(Exception e) throws IOException {
+			writeLine(ERROR_WRITER.writeValueAsBytes(Map.of("error", String.valueOf(e.getMessage()))));
+		}
+
+		void finish() throws IOException {
+			start();
+			this.out.close();
+		}
+
+		// Each line is flushed as its own chunk so the client can act on it
+		// straight away
+		private void writeLine(byte[] line) throws IOException {
+			start();
+			this.out.write(line);
+			this.out.write('\n');
+			this.out.flush();
+		}
+
+		private void start() throws IOException {
+			if (!this.started) {
+				this.started = true;
+				this.exchange.sendResponseHeaders(200, 0);
+				this.out = this.exchange.getResponseBody();
+			}
+		}
+	}
+}
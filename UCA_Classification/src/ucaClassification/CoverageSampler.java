@@ -0,0 +1,166 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+
+import ucaClassification.DamerauLevenshteinClassifier.Guideword;
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.Traces;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/**
+ * Finds which guideword and control action combinations occur in Fortis
+ * output without classifying all of it, for exploratory sessions where the
+ * individual UCAs matter less than which kinds of UCA there are.
+ * 
+ * Pairs are classified in input order until either a target number of
+ * combinations has been found or a run of pairs in a row has found nothing new,
+ * and the rest of the input isn't read. As with the --file mode, pairs that
+ * can't be classified are reported and skipped, and don't count toward that
+ * run. For each combination, a fixed number of its UCAs are kept as examples,
+ * chosen uniformly at random from the ones seen (reservoir sampling), so that
+ * the examples aren't all from the start of the input.
+ */
+public class CoverageSampler {
+	/**
+	 * The number of example UCAs kept for each combination from the command line
+	 */
+	public static final int DEFAULT_SAMPLES = 3;
+
+	/**
+	 * A combination that was found
+	 * 
+	 * @param guideword     The guideword
+	 * @param controlAction The control action
+	 * @param occurrences   The number of pairs read that were classified this way
+	 * @param samples       Examples of UCAs with this combination
+	 */
+	public record Covered(Guideword guideword, String controlAction, int occurrences,
+			List<UnsafeControlAction> samples) {
+	};
+
+	/**
+	 * The result of sampling
+	 * 
+	 * @param covered   Each combination found, in the order they were found
+	 * @param pairsRead The number of pairs read
+	 * @param complete  True if the whole input was read
+	 */
+	public record Coverage(List<Covered> covered, int pairsRead, boolean complete) {
+	};
+
+	private record Combination(Guideword guideword, String controlAction) {
+	};
+
+	private DamerauLevenshteinClassifier dlc;
+	private int patience;
+	private int target;
+	private int samples;
+	private Random random;
+
+	/**
+	 * Creates a sampler
+	 * 
+	 * @param dlc      The classifier
+	 * @param patience Stop after this many classified pairs in a row find no new
+	 *                 combination
+	 * @param target   Stop once this many combinations have been found; 0 for no
+	 *                 target
+	 * @param samples  The number of example UCAs to keep for each combination
+	 * @param seed     Seeds the choice of examples, so runs can be repeated
+	 */
+	public CoverageSampler(DamerauLevenshteinClassifier dlc, int patience, int target, int samples, long seed) {
+		this.dlc = dlc;
+		this.patience = patience;
+		this.target = target;
+		this.samples = samples;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Classifies Fortis output until coverage stops growing
+	 * 
+	 * @param in Fortis' JSON output; closed when sampling stops
+	 * @return The combinations found
+	 * @throws IOException If the input can't be read or isn't Fortis output
+	 */
+	public Coverage sample(InputStream in) throws IOException {
+		Map<Combination, List<UnsafeControlAction>> reservoirs = new LinkedHashMap<>();
+		Map<Combination, Integer> occurrences = new HashMap<>();
+		Map<Traces, UnsafeControlAction> classes = DamerauLevenshteinClassifier.recentClasses();
+		int read = 0;
+		int sinceNew = 0;
+		boolean complete = true;
+		try (MappingIterator<TracePair> pairs = DamerauLevenshteinClassifier.readFortisOutput(in)) {
+			while (pairs.hasNextValue()) {
+				if (sinceNew >= this.patience || (this.target > 0 && reservoirs.size() >= this.target)) {
+					complete = false;
+					break;
+				}
+				TracePair pair = DamerauLevenshteinClassifier.nextPair(pairs);
+				read++;
+				UnsafeControlAction uca;
+				try {
+					uca = this.dlc.classify(pair, classes);
+				} catch (RuntimeException e) {
+					System.err.println("Skipping " + pair + ": " + e.getMessage());
+					continue;
+				}
+				sinceNew++;
+				Combination combination = new Combination(uca.guideword(), uca.controlAction());
+				if (!reservoirs.containsKey(combination)) {
+					reservoirs.put(combination, new ArrayList<>());
+					sinceNew = 0;
+				}
+				int seen = occurrences.merge(combination, 1, Integer::sum);
+				List<UnsafeControlAction> reservoir = reservoirs.get(combination);
+				if (reservoir.size() < this.samples) {
+					reservoir.add(uca);
+				} else {
+					// The seen-th UCA replaces a kept one with probability samples / seen
+					int slot = this.random.nextInt(seen);
+					if (slot < this.samples) {
+						reservoir.set(slot, uca);
+					}
+				}
+			}
+		}
+		List<Covered> covered = new ArrayList<>();
+		for (Map.Entry<Combination, List<UnsafeControlAction>> e : reservoirs.entrySet()) {
+			covered.add(new Covered(e.getKey().guideword(), e.getKey().controlAction(),
+					occurrences.get(e.getKey()), e.getValue()));
+		}
+		return new Coverage(covered, read, complete);
+	}
+}
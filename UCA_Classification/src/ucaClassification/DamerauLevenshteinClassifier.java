@@ -25,27 +25,33 @@ package ucaClassification;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Scanner;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * Takes pairs of traces -- one safe, one unsafe -- and creates Unsafe Control
@@ -90,12 +96,75 @@ public class DamerauLevenshteinClassifier {
 	public record Activity(String start, String end) {
 	};
 
+	/**
+	 * One element of Fortis' robustness output: a safe ("good") trace, an unsafe
+	 * ("bad") trace, and what the unsafe trace violates. Missing lists are read as
+	 * empty.
+	 */
+	public record TracePair(List<String> goodTrace, List<String> badTrace, List<String> violatingComponents,
+			List<String> violatedInvs) {
+		public TracePair {
+			goodTrace = goodTrace == null ? List.of() : goodTrace;
+			badTrace = badTrace == null ? List.of() : badTrace;
+			violatingComponents = violatingComponents == null ? List.of() : violatingComponents;
+			violatedInvs = violatedInvs == null ? List.of() : violatedInvs;
+		}
+	};
+
+	/**
+	 * The traces of a pair, without what they violate. Fortis reports the same
+	 * traces once for each invariant and component they violate, and those pairs
+	 * are classified the same way apart from the source and violated constraint.
+	 */
+	record Traces(List<String> safe, List<String> unsafe) {
+	};
+
+	/**
+	 * How many distinct pairs of traces the streaming entry points remember the
+	 * classification of. Fortis reports a pair's repeats next to each other, so
+	 * only the most recent pairs are worth keeping.
+	 */
+	static final int RECENT_TRACES = 1024;
+
+	/**
+	 * @return An empty index for {@link #classify(TracePair, Map)} that keeps the
+	 *         {@link #RECENT_TRACES} most recently used pairs of traces
+	 */
+	static Map<Traces, UnsafeControlAction> recentClasses() {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Traces, UnsafeControlAction> eldest) {
+				return size() > RECENT_TRACES;
+			}
+		};
+	}
+
+	/**
+	 * Reads trace pairs one at a time, whether they are wrapped in a JSON array (as
+	 * Fortis prints them) or are a bare sequence of objects
+	 */
+	private static final ObjectReader PAIR_READER = new ObjectMapper().readerFor(TracePair.class)
+			.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	/**
+	 * Writes trace pairs as a JSON array, leaving the output stream open
+	 */
+	private static final ObjectWriter PAIR_WRITER = new ObjectMapper()
+			.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writer();
+
 	/**
 	 * Maps names to activity objects so we can identify Too Soon / Too Long unsafe
 	 * control actions.
 	 */
 	private Map<String, Activity> activities;
 
+	/**
+	 * Classifies the pairs that the guideword-specific checks don't
+	 */
+	private ClassificationEngine engine;
+
 	/**
 	 * STPA's model of time isn't really wall-clock time, but it's more than
 	 * ordering. Several guidewords (Too Early, Too Late, Stopped too Soon, Applied
@@ -103,13 +172,13 @@ public class DamerauLevenshteinClassifier {
 	 * signify some amount of time passing, so we can compare safe and unsafe traces
 	 * where the amount of time passing differs, and thus identify those guidewords.
 	 */
-	private static final String DELAY_ACTION = "Wait";
+	static final String DELAY_ACTION = "Wait";
 
 	/**
 	 * The Damerau-Levenshtein algorithm recognizes these four types of atomic
 	 * string edits.
 	 */
-	private enum Edit {
+	enum Edit {
 		ADD, DELETE, SUBSTITUTE, TRANSPOSE
 	}
 
@@ -126,19 +195,60 @@ public class DamerauLevenshteinClassifier {
 	 * @param activities Activities that may be encountered in the traces
 	 */
 	public DamerauLevenshteinClassifier(Map<String, Activity> activities) {
+		this(activities, EngineDispatcher.getDefault());
+	}
+
+	/**
+	 * Creates an instance with the supplied activity mapping and engine
+	 * 
+	 * @param activities Activities that may be encountered in the traces
+	 * @param engine     Finds the edit between the traces once the activities
+	 *                   and delay runs have been checked
+	 */
+	public DamerauLevenshteinClassifier(Map<String, Activity> activities, ClassificationEngine engine) {
 		this.activities = activities;
+		this.engine = engine;
 	}
 
 	public static void main(String[] args) {
-		BufferedReader f = new BufferedReader(new InputStreamReader(System.in));
+		if (args.length > 0 && args[0].equals("--server")) {
+			try {
+				ClassifierServer.run(args.length > 1 ? Integer.parseInt(args[1]) : ClassifierServer.DEFAULT_PORT);
+			} catch (IOException e) {
+				System.err.println("Unable to start the classifier server: " + e.getMessage());
+			}
+			return;
+		}
 		DamerauLevenshteinClassifier dlc = new DamerauLevenshteinClassifier(Collections.emptyMap());
+		if (args.length > 3 && args[0].equals("--file") && args[2].equals("--journal")) {
+			try {
+				List<UnsafeControlAction> classifierOutput = new CheckpointedRun(dlc, Path.of(args[3]),
+						CheckpointedRun.DEFAULT_INTERVAL).run(Path.of(args[1]));
+				print(classifierOutput);
+			} catch (IOException e) {
+				System.err.println("Unable to classify " + args[1] + ": " + e.getMessage());
+			}
+			return;
+		}
+		if (args.length > 3 && args[0].equals("--file") && args[2].equals("--coverage")) {
+			try (InputStream in = TraceCodecs.open(Path.of(args[1]))) {
+				print(new CoverageSampler(dlc, Integer.parseInt(args[3]), 0, CoverageSampler.DEFAULT_SAMPLES, 0)
+						.sample(in));
+			} catch (IOException e) {
+				System.err.println("Unable to classify " + args[1] + ": " + e.getMessage());
+			}
+			return;
+		}
+		if (args.length > 1 && args[0].equals("--file")) {
+			classifyFile(dlc, args[1]);
+			return;
+		}
 		try {
+			BufferedReader f = new BufferedReader(new InputStreamReader(TraceCodecs.open(System.in)));
 			String x = f.readLine();
 			while (x != null) {
 				if (x.startsWith("[{\"goodTrace\":[\"")) {
-					Collection<UnsafeControlAction> classifierOutput = dlc.classifyFortisOutput(x);
-					ObjectMapper mapper = new ObjectMapper();
-					System.out.print(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(classifierOutput));
+					print(dlc.classifyFortisOutput(x));
 					return;
 				} else {
 					x = f.readLine();
@@ -149,39 +259,98 @@ public class DamerauLevenshteinClassifier {
 			e.printStackTrace();
 		}
 		System.out.println("Usage: java -jar fortis-core.jar robustness --stpa ... | java -jar fasr-classifier.jar");
+		System.out.println("   or: java -jar fasr-classifier.jar --file fortis-out.json [--journal run.journal]");
+		System.out.println("   or: java -jar fasr-classifier.jar --file fortis-out.json --coverage patience");
+		System.out.println("   or: java -jar fasr-classifier.jar --server [port]");
 	}
 
-	public Collection<UnsafeControlAction> classifyFortisOutput(File jsonFile) {
-		Collection<UnsafeControlAction> ret = null;
-		Scanner s = null;
+	/**
+	 * The most pairs --file classifies together. Fortis prints the pairs for each
+	 * safe trace together, so a chunk ends at the next safe trace or at this many
+	 * pairs, and only one chunk is held in memory at a time.
+	 */
+	static final int FILE_CHUNK_SIZE = 1024;
+
+	/**
+	 * Classifies a file of saved Fortis output and prints the result. Unlike the
+	 * other entry points, a pair that can't be classified is reported and skipped
+	 * rather than ending the run. The file is streamed, a chunk of pairs with the
+	 * same safe trace at a time, so that the pairs in a chunk can share work.
+	 * 
+	 * @param dlc  The classifier
+	 * @param path The file to classify
+	 */
+	private static void classifyFile(DamerauLevenshteinClassifier dlc, String path) {
+		Set<UnsafeControlAction> classifierOutput = new LinkedHashSet<>();
+		BiConsumer<TracePair, RuntimeException> skip = (pair, e) -> System.err
+				.println("Skipping " + pair + ": " + e.getMessage());
+		ClassifierEvents.ReadFile event = new ClassifierEvents.ReadFile();
+		event.begin();
+		int read = 0;
+		try (MappingIterator<TracePair> it = readFortisOutput(TraceCodecs.open(Path.of(path)))) {
+			List<TracePair> chunk = new ArrayList<>();
+			while (it.hasNextValue()) {
+				TracePair pair = nextPair(it);
+				read++;
+				if (!chunk.isEmpty() && (chunk.size() >= FILE_CHUNK_SIZE
+						|| !chunk.get(0).goodTrace().equals(pair.goodTrace()))) {
+					classifierOutput.addAll(dlc.classifyAll(chunk, skip));
+					chunk.clear();
+				}
+				chunk.add(pair);
+			}
+			if (!chunk.isEmpty()) {
+				classifierOutput.addAll(dlc.classifyAll(chunk, skip));
+			}
+		} catch (IOException e) {
+			System.err.println("Unable to read " + path + ": " + e.getMessage());
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.path = path;
+			event.bytes = new File(path).length();
+			event.pairs = read;
+			event.commit();
+		}
+		classifierOutput.remove(null);
 		try {
-			s = new Scanner(jsonFile);
-			ret = classifyFortisOutput(s.useDelimiter("\\Z").next());
-		} catch (FileNotFoundException e) {
+			print(classifierOutput);
+		} catch (IOException e) {
+			System.err.println("Unable to write the classifier output: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Prints the classifier's output as JSON, compressed with the codec named by
+	 * {@link TraceCodecs#OUTPUT_CODEC_PROPERTY} if it is set
+	 * 
+	 * @param output What to print
+	 * @throws IOException If the output can't be written
+	 */
+	private static void print(Object output) throws IOException {
+		OutputStream out = TraceCodecs.compress(System.out, System.getProperty(TraceCodecs.OUTPUT_CODEC_PROPERTY));
+		// Closing the stream finishes the compressed output
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(out, output);
+	}
+
+	public Collection<UnsafeControlAction> classifyFortisOutput(File jsonFile) {
+		Collection<UnsafeControlAction> ret = new HashSet<>();
+		try (InputStream in = TraceCodecs.open(jsonFile.toPath())) {
+			classifyFortisOutput(in, ret::add);
+		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
-		} finally {
-			s.close();
 		}
 		return ret;
 	}
 
 	public Collection<UnsafeControlAction> classifyFortisOutput(String s) {
 		Collection<UnsafeControlAction> ret = new HashSet<>();
-		ObjectMapper mapper = new ObjectMapper();
 		try {
-			ArrayNode root = (ArrayNode) mapper.readTree(s);
-			for (JsonNode jsonPair : root) {
-				var pair = (ObjectNode) jsonPair;
-				List<String> safe = mapper.readerForListOf(String.class).readValue(pair.get("goodTrace"));
-				List<String> unsafe = mapper.readerForListOf(String.class).readValue(pair.get("badTrace"));
-				List<String> invariants = mapper.readerForListOf(String.class).readValue(pair.get("violatedInvs"));
-				String invariantStr = String.join(",", invariants);
-				List<String> components = mapper.readerForListOf(String.class)
-						.readValue(pair.get("violatingComponents"));
-				String componentStr = String.join(",", components);
-				ret.add(classify(safe, unsafe, invariantStr, componentStr));
-			}
+			classifyFortisOutput(readFortisOutput(s), ret::add, (pair, e) -> {
+				throw e;
+			});
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -189,8 +358,243 @@ public class DamerauLevenshteinClassifier {
 		return ret;
 	}
 
+	/**
+	 * Classifies Fortis output incrementally. Trace pairs are parsed from the
+	 * stream one at a time, and each distinct UnsafeControlAction is handed to the
+	 * consumer as soon as it is found, so the whole JSON document is never held in
+	 * memory. The consumer may block (eg, on a bounded queue) to slow the
+	 * classifier down.
+	 * 
+	 * @param in       Fortis' JSON output
+	 * @param consumer Receives each distinct UnsafeControlAction, in input order
+	 * @throws IOException If the input can't be read or isn't Fortis output
+	 */
+	public void classifyFortisOutput(InputStream in, Consumer<UnsafeControlAction> consumer) throws IOException {
+		classifyFortisOutput(readFortisOutput(in), consumer, (pair, e) -> {
+			throw e;
+		});
+	}
+
+	/**
+	 * Classifies Fortis output incrementally, as
+	 * {@link #classifyFortisOutput(InputStream, Consumer)} does, except that a pair
+	 * that can't be classified is reported and skipped rather than ending the run
+	 * 
+	 * @param in       Fortis' JSON output
+	 * @param consumer Receives each distinct UnsafeControlAction, in input order
+	 * @param failures Told about each pair that can't be classified and why
+	 * @throws IOException If the input can't be read or isn't Fortis output
+	 */
+	public void classifyFortisOutput(InputStream in, Consumer<UnsafeControlAction> consumer,
+			BiConsumer<TracePair, RuntimeException> failures) throws IOException {
+		classifyFortisOutput(readFortisOutput(in), consumer, failures);
+	}
+
+	/**
+	 * Lazily parses Fortis output into trace pairs
+	 * 
+	 * @param in Fortis' JSON output
+	 * @return An iterator over the trace pairs; close it to release the stream
+	 * @throws IOException If the input can't be read
+	 */
+	public static MappingIterator<TracePair> readFortisOutput(InputStream in) throws IOException {
+		return PAIR_READER.readValues(in);
+	}
+
+	/**
+	 * Lazily parses Fortis output into trace pairs
+	 * 
+	 * @param s Fortis' JSON output
+	 * @return An iterator over the trace pairs
+	 * @throws IOException If the input can't be parsed
+	 */
+	public static MappingIterator<TracePair> readFortisOutput(String s) throws IOException {
+		return PAIR_READER.readValues(s);
+	}
+
+	/**
+	 * Writes trace pairs in the JSON shape Fortis prints, so that pairs found by
+	 * other tools can be classified with classifyFortisOutput
+	 * 
+	 * @param pairs The trace pairs to write
+	 * @param out   Where to write them; left open
+	 * @throws IOException If the output can't be written
+	 */
+	public static void writeFortisOutput(Collection<TracePair> pairs, OutputStream out) throws IOException {
+		PAIR_WRITER.writeValue(out, pairs);
+	}
+
+	/**
+	 * Parses the next trace pair, recording how long Jackson took
+	 * 
+	 * @param pairs Fortis output with another pair in it
+	 * @return The next pair
+	 * @throws IOException If the pair can't be read or parsed
+	 */
+	static TracePair nextPair(MappingIterator<TracePair> pairs) throws IOException {
+		ClassifierEvents.Parse event = new ClassifierEvents.Parse();
+		event.begin();
+		TracePair pair = pairs.nextValue();
+		event.end();
+		if (event.shouldCommit()) {
+			event.safeLength = pair.goodTrace().size();
+			event.unsafeLength = pair.badTrace().size();
+			event.commit();
+		}
+		return pair;
+	}
+
+	private void classifyFortisOutput(MappingIterator<TracePair> pairs, Consumer<UnsafeControlAction> consumer,
+			BiConsumer<TracePair, RuntimeException> failures) throws IOException {
+		// The distinct results are kept so that duplicates can be dropped, and the
+		// classifications of the most recent traces so that repeats aren't
+		// classified again
+		Set<UnsafeControlAction> seen = new HashSet<>();
+		Map<Traces, UnsafeControlAction> classes = recentClasses();
+		try (pairs) {
+			while (pairs.hasNextValue()) {
+				TracePair pair = nextPair(pairs);
+				UnsafeControlAction uca;
+				try {
+					uca = classify(pair, classes);
+				} catch (RuntimeException e) {
+					failures.accept(pair, e);
+					continue;
+				}
+				if (seen.add(uca)) {
+					consumer.accept(uca);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Classifies a single pair of traces from Fortis' output
+	 * 
+	 * @param pair A safe and unsafe trace, with the invariants and components
+	 *             the unsafe trace violates
+	 * @return The UnsafeControlAction associated with these traces
+	 */
+	public UnsafeControlAction classify(TracePair pair) {
+		String invariantStr = String.join(",", pair.violatedInvs());
+		String componentStr = String.join(",", pair.violatingComponents());
+		return classify(pair.goodTrace(), pair.badTrace(), invariantStr, componentStr);
+	}
+
+	/**
+	 * Classifies a pair, reusing the classification of an earlier pair with the
+	 * same traces when there is one
+	 * 
+	 * @param pair    A safe and unsafe trace, with the invariants and components
+	 *                the unsafe trace violates
+	 * @param classes The classifications of pairs of traces seen so far, eg from
+	 *                {@link #recentClasses()}; updated with this pair's
+	 * @return The UnsafeControlAction associated with these traces
+	 */
+	UnsafeControlAction classify(TracePair pair, Map<Traces, UnsafeControlAction> classes) {
+		Traces traces = new Traces(pair.goodTrace(), pair.badTrace());
+		UnsafeControlAction representative = classes.get(traces);
+		if (representative == null) {
+			UnsafeControlAction uca = classify(pair);
+			classes.put(traces, uca);
+			return uca;
+		}
+		return new UnsafeControlAction(String.join(",", pair.violatingComponents()), representative.guideword(),
+				representative.controlAction(), representative.context(), String.join(",", pair.violatedInvs()));
+	}
+
 	public UnsafeControlAction classify(List<String> safe, List<String> unsafe, String invariantName,
 			String sourceName) {
+		ClassifierEvents.Classify event = new ClassifierEvents.Classify();
+		event.begin();
+		Optional<UnsafeControlAction> special = classifySpecialCases(safe, unsafe, invariantName, sourceName);
+		UnsafeControlAction uca = special.isPresent() ? special.get()
+				: this.engine.classify(safe, unsafe, invariantName, sourceName);
+		event.end();
+		if (event.shouldCommit()) {
+			event.safeLength = safe.size();
+			event.unsafeLength = unsafe.size();
+			event.cells = (long) (safe.size() + 2) * (unsafe.size() + 2);
+			event.specialCase = special.isPresent();
+			event.guideword = String.valueOf(uca.guideword());
+			event.controlAction = uca.controlAction();
+			event.commit();
+		}
+		return uca;
+	}
+
+	/**
+	 * Classifies a batch of pairs, giving the same results as classifying each of
+	 * them. Pairs with the same safe trace share the edit-distance work for the
+	 * prefixes their unsafe traces have in common.
+	 * 
+	 * @param pairs    The pairs to classify
+	 * @param failures Told, in input order, about each pair that can't be
+	 *                 classified and why
+	 * @return The UnsafeControlAction for each pair, in input order, or null for
+	 *         pairs that can't be classified
+	 */
+	public List<UnsafeControlAction> classifyAll(List<TracePair> pairs,
+			BiConsumer<TracePair, RuntimeException> failures) {
+		ClassifierEvents.ClassifyBatch event = new ClassifierEvents.ClassifyBatch();
+		event.begin();
+		UnsafeControlAction[] results = new UnsafeControlAction[pairs.size()];
+		RuntimeException[] errors = new RuntimeException[pairs.size()];
+		int[] batched = new int[pairs.size()];
+		SharedPrefixBatch batch = new SharedPrefixBatch();
+		for (int k = 0; k < pairs.size(); k++) {
+			TracePair pair = pairs.get(k);
+			batched[k] = -1;
+			try {
+				Optional<UnsafeControlAction> special = classifySpecialCases(pair.goodTrace(), pair.badTrace(),
+						String.join(",", pair.violatedInvs()), String.join(",", pair.violatingComponents()));
+				if (special.isPresent()) {
+					results[k] = special.get();
+				} else {
+					batched[k] = batch.add(pair);
+				}
+			} catch (RuntimeException e) {
+				errors[k] = e;
+			}
+		}
+		UnsafeControlAction[] batchResults = batch.classify();
+		for (int k = 0; k < pairs.size(); k++) {
+			if (results[k] != null || errors[k] != null) {
+				continue;
+			}
+			if (batched[k] >= 0 && batchResults[batched[k]] != null) {
+				results[k] = batchResults[batched[k]];
+				continue;
+			}
+			// Too large for the batch, or a pair the table fails on, which should fail
+			// just as it would on its own
+			try {
+				results[k] = classify(pairs.get(k));
+			} catch (RuntimeException e) {
+				errors[k] = e;
+			}
+		}
+		event.end();
+		for (int k = 0; k < pairs.size(); k++) {
+			if (errors[k] != null) {
+				failures.accept(pairs.get(k), errors[k]);
+				event.failures++;
+			}
+		}
+		event.pairs = pairs.size();
+		event.commit();
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Classifies the pairs that don't need the edit-distance table
+	 * 
+	 * @return The UnsafeControlAction associated with these traces, or empty if
+	 *         the table is needed
+	 * @throws IllegalArgumentException If the traces are identical
+	 */
+	private Optional<UnsafeControlAction> classifySpecialCases(List<String> safe, List<String> unsafe,
+			String invariantName, String sourceName) {
 		if (safe.equals(unsafe)) {
 			throw new IllegalArgumentException(
 					"The unsafe trace is identical to the safe trace; there is no error to classify.");
@@ -201,100 +605,102 @@ public class DamerauLevenshteinClassifier {
 		// algorithm, so we check for that / return early if possible.
 		Optional<UnsafeControlAction> tooLongOrShort = checkTooLongOrShort(safe, unsafe, invariantName, sourceName);
 		if (tooLongOrShort.isPresent()) {
-			return tooLongOrShort.get();
+			return tooLongOrShort;
 		}
 
-		// The D-L initialization / setup takes advantage of the fact that only edit
-		// distance is being computed, rather than the edits themselves as we track (see
-		// in particular the loops which initialize C[i][0] to i and C[0][j] to j). We
-		// are forced to actually calculate these edits, which we do by prepending an
-		// idle action to both traces. Note this requires subsequent removal for the UCA
-		// context.
-		List<String> newSafe = new LinkedList<>();
-		newSafe.add(DELAY_ACTION);
-		newSafe.addAll(safe);
-		safe = newSafe;
-
-		List<String> newUnsafe = new LinkedList<>();
-		newUnsafe.add(DELAY_ACTION);
-		newUnsafe.addAll(unsafe);
-		unsafe = newUnsafe;
-
-		int[][] C = new int[safe.size() + 1][unsafe.size() + 1];
-
-		@SuppressWarnings("unchecked")
-		Deque<UnsafeControlAction>[][] CG = new LinkedList[safe.size() + 1][unsafe.size() + 1];
-
-		// This gets the alphabet of the strings: it de-duplicates them by combining
-		// them into a set, then puts them in a list since we need stable indices of
-		// elements
-		List<String> Σ = Set.copyOf(Stream.concat(safe.stream(), unsafe.stream()).toList()).stream()
-				.collect(Collectors.toList());
-
-		int[] CP = new int[Σ.size() + 1];
-
-		int iPrime, jPrime, CS;
-		int delScore, addScore, subScore;
-		Optional<Integer> transScore = Optional.empty();
+		// Timing-heavy traces are mostly runs of delay actions, and the engine's
+		// edit-distance table grows with every one of them. Traces that differ only
+		// in the length of one run are classified from their run-length encodings
+		// instead.
+		return classifyDelayRun(safe, unsafe, invariantName, sourceName);
+	}
 
-		for (int i = 0; i <= safe.size(); i++) {
-			C[i][0] = i;
-			CG[i][0] = new LinkedList<UnsafeControlAction>();
+	/**
+	 * Classifies traces that are identical apart from the length of one run of
+	 * delay actions: a shorter run in the unsafe trace makes the following action
+	 * Too Early, and a longer one makes it Too Late. The result is the one the
+	 * Damerau-Levenshtein table gives, but it is found by comparing the traces'
+	 * run-length encodings, so it takes time proportional to the number of runs
+	 * rather than to the product of the traces' lengths.
+	 * 
+	 * @param safe          A safe trace of system behaviors
+	 * @param unsafe        An unsafe trace of system behaviors
+	 * @param invariantName The name of the safety property that is violated by the
+	 *                      unsafe trace but not the safe trace.
+	 * @return The UnsafeControlAction associated with these traces, or empty if
+	 *         they differ in some other way, or if no action follows the run
+	 */
+	private Optional<UnsafeControlAction> classifyDelayRun(List<String> safe, List<String> unsafe,
+			String invariantName, String sourceName) {
+		List<Run> safeRuns = runLengthEncode(safe);
+		List<Run> unsafeRuns = runLengthEncode(unsafe);
+		if (safeRuns.size() != unsafeRuns.size()) {
+			return Optional.empty();
 		}
-
-		for (int j = 0; j <= unsafe.size(); j++) {
-			C[0][j] = j;
-			CG[0][j] = new LinkedList<UnsafeControlAction>();
+		// The differing run, and where it starts in both traces
+		int run = -1;
+		int start = 0;
+		int offset = 0;
+		for (int r = 0; r < safeRuns.size(); r++) {
+			Run safeRun = safeRuns.get(r);
+			Run unsafeRun = unsafeRuns.get(r);
+			if (!safeRun.action().equals(unsafeRun.action())) {
+				return Optional.empty();
+			}
+			if (safeRun.length() != unsafeRun.length()) {
+				if (run >= 0 || !safeRun.action().equals(DELAY_ACTION)) {
+					return Optional.empty();
+				}
+				run = r;
+				start = offset;
+			}
+			offset += safeRun.length();
 		}
-
-		for (int i = 1; i <= Σ.size(); i++) {
-			CP[i] = 0;
+		if (run < 0) {
+			return Optional.empty();
 		}
+		int safeLength = safeRuns.get(run).length();
+		int unsafeLength = unsafeRuns.get(run).length();
+		if (start + unsafeLength >= unsafe.size()) {
+			return Optional.empty();
+		}
+		// Runs are maximal, so this is the next non-delay action
+		String controlAction = unsafe.get(start + unsafeLength);
+		Guideword guideword;
+		Edit edit;
+		int prefixEnd;
+		if (unsafeLength < safeLength) {
+			guideword = Guideword.TOO_EARLY;
+			edit = Edit.DELETE;
+			prefixEnd = start + unsafeLength;
+		} else {
+			guideword = Guideword.TOO_LATE;
+			edit = Edit.ADD;
+			prefixEnd = start + safeLength;
+		}
+		String explanation = buildExplanation(unsafe.subList(0, prefixEnd),
+				unsafe.subList(prefixEnd + 1, unsafe.size()), guideword, Optional.of(edit), controlAction,
+				Optional.empty(), Optional.empty());
+		return Optional.of(new UnsafeControlAction(sourceName, guideword, controlAction, explanation, invariantName));
+	}
 
-		for (int i = 1; i <= safe.size(); i++) {
-			CS = 0;
-			for (int j = 1; j <= unsafe.size(); j++) {
-				int d;
-				if (safe.get(i - 1).equals(unsafe.get(j - 1))) {
-					d = 0;
-				} else {
-					d = 1;
-				}
-				delScore = C[i - 1][j] + 1;
-				addScore = C[i][j - 1] + 1;
-				subScore = C[i - 1][j - 1] + d;
-				C[i][j] = Math.min(delScore, Math.min(addScore, subScore));
-				// CP[c] stores the largest index i' < i such that p[i'] = c.
-				// CS stores the largest index j' < j such that s[j'] = p[i]
-				iPrime = CP[Σ.indexOf(unsafe.get(j - 1))];
-				jPrime = CS;
-				if (iPrime > 0 && jPrime > 0) {
-					transScore = Optional.of(C[iPrime - 1][jPrime - 1] + (i - iPrime) + (j - jPrime) - 1);
-					C[i][j] = Math.min(C[i][j], transScore.get());
-				}
-				if (d == 0) {
-					CS = j;
-				}
-				Edit edit = null;
-				if (C[i][j] == delScore) {
-					edit = Edit.DELETE;
-				} else if (C[i][j] == addScore) {
-					edit = Edit.ADD;
-				} else if (C[i][j] == subScore) {
-					edit = Edit.SUBSTITUTE;
-				} else if (transScore.isPresent() && C[i][j] == transScore.get()) {
-					edit = Edit.TRANSPOSE;
-				}
-				Optional<UnsafeControlAction> newUCA = classifyUCA(safe, unsafe, edit, CG, i, j, d, iPrime, jPrime,
-						invariantName, sourceName);
-				if (newUCA.isPresent()) {
-					CG[i][j].addLast(newUCA.get());
-				}
+	/**
+	 * A run of consecutive identical actions
+	 */
+	private record Run(String action, int length) {
+	};
 
+	private static List<Run> runLengthEncode(List<String> actions) {
+		List<Run> runs = new ArrayList<>();
+		int length = 0;
+		for (int i = 0; i < actions.size(); i++) {
+			length++;
+			if (i + 1 == actions.size() || !actions.get(i + 1).equals(actions.get(i))) {
+				runs.add(new Run(actions.get(i), length));
+				length = 0;
 			}
-			CP[Σ.indexOf(safe.get(i - 1))] = i;
 		}
-		return CG[safe.size()][unsafe.size()].getFirst();
+		return runs;
 	}
 
 	/**
@@ -311,9 +717,13 @@ public class DamerauLevenshteinClassifier {
 	 */
 	private Optional<UnsafeControlAction> checkTooLongOrShort(List<String> safe, List<String> unsafe,
 			String invariantName, String sourceName) {
-		var safeActivityDurations = getActivityDurations(safe);
+		if (activities.isEmpty()) {
+			return Optional.empty();
+		}
+		int[][] tokens = TokenKernels.tokenize(safe, unsafe);
+		var safeActivityDurations = getActivityDurations(safe, tokens[0]);
 		if (!safeActivityDurations.isEmpty()) {
-			var unsafeActivityDurations = getActivityDurations(unsafe);
+			var unsafeActivityDurations = getActivityDurations(unsafe, tokens[1]);
 			for (String activityName : safeActivityDurations.keySet()) {
 				if (!unsafeActivityDurations.containsKey(activityName)) {
 					continue;
@@ -321,10 +731,7 @@ public class DamerauLevenshteinClassifier {
 				List<String> prefix = Collections.emptyList();
 				List<String> suffix = Collections.emptyList();
 				if (safeActivityDurations != unsafeActivityDurations) {
-					int diffIdx = 0;
-					while (safe.get(diffIdx).equals(unsafe.get(diffIdx))) {
-						diffIdx++;
-					}
+					int diffIdx = TokenKernels.get().mismatch(tokens[0], tokens[1]);
 					prefix = safe.subList(0, diffIdx);
 					suffix = safe.subList(Math.min(diffIdx + 2, safe.size()), safe.size());
 				}
@@ -351,10 +758,11 @@ public class DamerauLevenshteinClassifier {
 	 * the provided trace
 	 * 
 	 * @param actions A trace of system behavior
+	 * @param tokens  The same trace, numbered by {@link TokenKernels#tokenize}
 	 * @return A mapping from activity name -> number of delay actions between the
 	 *         start and stop action of the named activity
 	 */
-	private Map<String, Integer> getActivityDurations(List<String> actions) {
+	private Map<String, Integer> getActivityDurations(List<String> actions, int[] tokens) {
 		Map<String, Integer> ret = new HashMap<>();
 		for (String activityName : activities.keySet()) {
 			Activity a = activities.get(activityName);
@@ -362,129 +770,14 @@ public class DamerauLevenshteinClassifier {
 			// Make sure the end comes after the start
 			int endPos = actions.subList(startPos, actions.size()).indexOf(a.end());
 			if (startPos >= 0 && endPos >= 0 && startPos < endPos) {
-				int numWaits = Collections.frequency(actions.subList(startPos, endPos), DELAY_ACTION);
+				int numWaits = TokenKernels.get().count(tokens, startPos, endPos, TokenKernels.DELAY_TOKEN);
 				ret.put(activityName, numWaits);
 			}
 		}
 		return ret;
 	}
 
-	private Optional<UnsafeControlAction> classifyUCA(List<String> safeActions, List<String> unsafeActions, Edit edit,
-			Deque<UnsafeControlAction>[][] CG, int i, int j, int d, int iPrime, int jPrime, String invariantName,
-			String sourceName) {
-		CG[i][j] = new LinkedList<UnsafeControlAction>();
-		Guideword guideword = null;
-		String controlAction = null;
-		Optional<String> alternateAction = Optional.empty();
-		List<String> context = null;
-		List<String> suffix = null;
-		if (edit == Edit.DELETE) {
-			CG[i][j].addAll(CG[i - 1][j]);
-			if (!CG[i][j].isEmpty()) {
-				// Calculating subsequent UCAs is both difficult and unnecessary, so we skip it
-				return Optional.empty();
-			}
-			String deletedAction = safeActions.get(i - 1);
-			if (deletedAction.equals(DELAY_ACTION)) {
-				controlAction = unsafeActions.get(j);
-				context = unsafeActions.subList(0, i - 1);
-				suffix = unsafeActions.subList(i, unsafeActions.size());
-				guideword = Guideword.TOO_EARLY;
-			} else {
-				controlAction = deletedAction;
-				context = unsafeActions.subList(0, i - 1);
-				suffix = unsafeActions.subList(i - 1, unsafeActions.size());
-				guideword = Guideword.NOT_PROVIDING;
-			}
-		} else if (edit == Edit.ADD) {
-			CG[i][j].addAll(CG[i][j - 1]);
-			if (!CG[i][j].isEmpty()) {
-				// Calculating subsequent UCAs is 1) Difficult, and 2) Unnecessary, so we skip
-				// it
-				return Optional.empty();
-			}
-			String addedAction = unsafeActions.get(j - 1);
-			if (addedAction.equals(DELAY_ACTION)) {
-				// We need to find the next non-wait action, though if the trace ends in all
-				// waits, there will be no subsequent action so we don't have a UCA
-				controlAction = null;
-				int k;
-				for (k = j; k < unsafeActions.size(); k++) {
-					if (!unsafeActions.get(k).equals(DELAY_ACTION)) {
-						controlAction = unsafeActions.get(k);
-						break;
-					}
-				}
-				context = unsafeActions.subList(0, i);
-				suffix = unsafeActions.subList(i + 1, unsafeActions.size());
-				guideword = Guideword.TOO_LATE;
-			} else {
-				controlAction = addedAction;
-				context = unsafeActions.subList(0, i);
-				suffix = unsafeActions.subList(i + 1, unsafeActions.size());
-				guideword = Guideword.PROVIDING;
-			}
-		} else if (edit == Edit.SUBSTITUTE) {
-			CG[i][j].addAll(CG[i - 1][j - 1]);
-			if (!CG[i][j].isEmpty()) {
-				// Calculating subsequent UCAs is difficult and unnecessary, so we skip it
-				return Optional.empty();
-			}
-			if (d == 1) {
-				String correctAction = safeActions.get(i - 1);
-				String incorrectAction = unsafeActions.get(j - 1);
-				if (incorrectAction.equals(DELAY_ACTION)) {
-					controlAction = correctAction;
-					context = unsafeActions.subList(0, i - 1);
-					suffix = unsafeActions.subList(i, unsafeActions.size());
-					guideword = Guideword.NOT_PROVIDING;
-				} else {
-					controlAction = incorrectAction;
-					alternateAction = Optional.of(correctAction);
-					context = unsafeActions.subList(0, i - 1);
-					suffix = unsafeActions.subList(i, unsafeActions.size());
-					guideword = Guideword.PROVIDING;
-				}
-			}
-		} else if (edit == Edit.TRANSPOSE) {
-			CG[i][j].addAll(CG[iPrime - 1][jPrime - 1]);
-			if (!CG[i][j].isEmpty()) {
-				// Calculating subsequent UCAs is difficult and unnecessary, so we skip it
-				return Optional.empty();
-			}
-			String correctAction = safeActions.get(iPrime - 1);
-			String incorrectAction = unsafeActions.get(jPrime - 1);
-			if (!incorrectAction.equals(DELAY_ACTION) && !correctAction.equals(DELAY_ACTION)) {
-				controlAction = incorrectAction;
-				alternateAction = Optional.of(correctAction);
-				context = unsafeActions.subList(0, i - 2);
-				suffix = unsafeActions.subList(i, unsafeActions.size());
-				guideword = Guideword.OUT_OF_SEQUENCE;
-			} else if (incorrectAction.equals(DELAY_ACTION)) {
-				controlAction = correctAction;
-				context = safeActions.subList(0, iPrime - 1);
-				suffix = unsafeActions.subList(iPrime + 1, unsafeActions.size());
-				guideword = Guideword.TOO_LATE;
-			} else if (correctAction.equals(DELAY_ACTION)) {
-				controlAction = incorrectAction;
-				context = unsafeActions.subList(0, iPrime - 1);
-				suffix = unsafeActions.subList(iPrime, unsafeActions.size());
-				guideword = Guideword.TOO_EARLY;
-			}
-		}
-		if (guideword == null || controlAction == null || context == null) {
-			return Optional.empty();
-		} else {
-			// Remove the "fake" delay action we inserted to make the initialization work
-			List<String> prefix = context.subList(1, context.size());
-			String explanation = buildExplanation(prefix, suffix, guideword, Optional.of(edit), controlAction,
-					alternateAction, Optional.empty());
-			return Optional
-					.of(new UnsafeControlAction(sourceName, guideword, controlAction, explanation, invariantName));
-		}
-	}
-
-	private String buildExplanation(List<String> prefix, List<String> suffix, Guideword guideword, Optional<Edit> edit,
+	static String buildExplanation(List<String> prefix, List<String> suffix, Guideword guideword, Optional<Edit> edit,
 			String controlAction, Optional<String> alternateAction, Optional<String> activityName) {
 		StringBuilder exp = new StringBuilder();
 		// Prefix
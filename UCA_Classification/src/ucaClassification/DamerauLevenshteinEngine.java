@@ -0,0 +1,308 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import static ucaClassification.DamerauLevenshteinClassifier.DELAY_ACTION;
+import static ucaClassification.DamerauLevenshteinClassifier.buildExplanation;
+
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import ucaClassification.DamerauLevenshteinClassifier.Edit;
+import ucaClassification.DamerauLevenshteinClassifier.Guideword;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/**
+ * The reference classification engine: a modified Damerau-Levenshtein edit
+ * distance calculation that records, for each cell of the table, the
+ * UnsafeControlAction of the first edit on the cheapest path to it.
+ * 
+ * It handles any pair of traces, but needs a table with a cell for each pair of
+ * positions in the two traces.
+ * 
+ * @author Sam Procter
+ */
+public class DamerauLevenshteinEngine implements ClassificationEngine {
+
+	/**
+	 * A rough upper bound on the memory each cell of the table takes: an int, a
+	 * reference and a (usually empty) LinkedList
+	 */
+	public static final int BYTES_PER_CELL = 64;
+
+	/**
+	 * Checks whether the table for a pair of traces fits comfortably in the memory
+	 * that is left
+	 * 
+	 * @param workload The size of the pair
+	 * @return True if the table would take less than half the available memory
+	 */
+	public static boolean fits(Workload workload) {
+		return workload.cells() <= workload.availableMemory() / 2 / BYTES_PER_CELL;
+	}
+
+	@Override
+	public String getName() {
+		return "reference";
+	}
+
+	@Override
+	public boolean accepts(Workload workload) {
+		return true;
+	}
+
+	@Override
+	public UnsafeControlAction classify(List<String> safe, List<String> unsafe, String invariantName,
+			String sourceName) {
+		// The D-L initialization / setup takes advantage of the fact that only edit
+		// distance is being computed, rather than the edits themselves as we track (see
+		// in particular the loops which initialize C[i][0] to i and C[0][j] to j). We
+		// are forced to actually calculate these edits, which we do by prepending an
+		// idle action to both traces. Note this requires subsequent removal for the UCA
+		// context.
+		List<String> newSafe = new LinkedList<>();
+		newSafe.add(DELAY_ACTION);
+		newSafe.addAll(safe);
+		safe = newSafe;
+
+		List<String> newUnsafe = new LinkedList<>();
+		newUnsafe.add(DELAY_ACTION);
+		newUnsafe.addAll(unsafe);
+		unsafe = newUnsafe;
+
+		int[][] C = new int[safe.size() + 1][unsafe.size() + 1];
+
+		@SuppressWarnings("unchecked")
+		Deque<UnsafeControlAction>[][] CG = new LinkedList[safe.size() + 1][unsafe.size() + 1];
+
+		// This gets the alphabet of the strings: it de-duplicates them by combining
+		// them into a set, then puts them in a list since we need stable indices of
+		// elements
+		List<String> Σ = Set.copyOf(Stream.concat(safe.stream(), unsafe.stream()).toList()).stream()
+				.collect(Collectors.toList());
+
+		int[] CP = new int[Σ.size() + 1];
+
+		int iPrime, jPrime, CS;
+		int delScore, addScore, subScore;
+		Optional<Integer> transScore = Optional.empty();
+
+		for (int i = 0; i <= safe.size(); i++) {
+			C[i][0] = i;
+			CG[i][0] = new LinkedList<UnsafeControlAction>();
+		}
+
+		for (int j = 0; j <= unsafe.size(); j++) {
+			C[0][j] = j;
+			CG[0][j] = new LinkedList<UnsafeControlAction>();
+		}
+
+		for (int i = 1; i <= Σ.size(); i++) {
+			CP[i] = 0;
+		}
+
+		for (int i = 1; i <= safe.size(); i++) {
+			CS = 0;
+			for (int j = 1; j <= unsafe.size(); j++) {
+				int d;
+				if (safe.get(i - 1).equals(unsafe.get(j - 1))) {
+					d = 0;
+				} else {
+					d = 1;
+				}
+				delScore = C[i - 1][j] + 1;
+				addScore = C[i][j - 1] + 1;
+				subScore = C[i - 1][j - 1] + d;
+				C[i][j] = Math.min(delScore, Math.min(addScore, subScore));
+				// CP[c] stores the largest index i' < i such that p[i'] = c.
+				// CS stores the largest index j' < j such that s[j'] = p[i]
+				iPrime = CP[Σ.indexOf(unsafe.get(j - 1))];
+				jPrime = CS;
+				if (iPrime > 0 && jPrime > 0) {
+					transScore = Optional.of(C[iPrime - 1][jPrime - 1] + (i - iPrime) + (j - jPrime) - 1);
+					C[i][j] = Math.min(C[i][j], transScore.get());
+				}
+				if (d == 0) {
+					CS = j;
+				}
+				Edit edit = null;
+				if (C[i][j] == delScore) {
+					edit = Edit.DELETE;
+				} else if (C[i][j] == addScore) {
+					edit = Edit.ADD;
+				} else if (C[i][j] == subScore) {
+					edit = Edit.SUBSTITUTE;
+				} else if (transScore.isPresent() && C[i][j] == transScore.get()) {
+					edit = Edit.TRANSPOSE;
+				}
+				Optional<UnsafeControlAction> newUCA = classifyUCA(safe, unsafe, edit, CG, i, j, d, iPrime, jPrime,
+						invariantName, sourceName);
+				if (newUCA.isPresent()) {
+					CG[i][j].addLast(newUCA.get());
+				}
+
+			}
+			CP[Σ.indexOf(safe.get(i - 1))] = i;
+		}
+		return CG[safe.size()][unsafe.size()].getFirst();
+	}
+
+	private static Optional<UnsafeControlAction> classifyUCA(List<String> safeActions, List<String> unsafeActions,
+			Edit edit, Deque<UnsafeControlAction>[][] CG, int i, int j, int d, int iPrime, int jPrime,
+			String invariantName, String sourceName) {
+		CG[i][j] = new LinkedList<UnsafeControlAction>();
+		if (edit == Edit.DELETE) {
+			CG[i][j].addAll(CG[i - 1][j]);
+		} else if (edit == Edit.ADD) {
+			CG[i][j].addAll(CG[i][j - 1]);
+		} else if (edit == Edit.SUBSTITUTE) {
+			CG[i][j].addAll(CG[i - 1][j - 1]);
+		} else if (edit == Edit.TRANSPOSE) {
+			CG[i][j].addAll(CG[iPrime - 1][jPrime - 1]);
+		} else {
+			return Optional.empty();
+		}
+		if (!CG[i][j].isEmpty()) {
+			// Calculating subsequent UCAs is both difficult and unnecessary, so we skip it
+			return Optional.empty();
+		}
+		return classifyEdit(safeActions, unsafeActions, edit, i, j, d, iPrime, jPrime)
+				.map(c -> c.toUnsafeControlAction(invariantName, sourceName));
+	}
+
+	/**
+	 * The classification of one edit in the table, with its explanation left to
+	 * be built once it is known to be needed
+	 */
+	record Candidate(Guideword guideword, Edit edit, String controlAction, Optional<String> alternateAction,
+			List<String> prefix, List<String> suffix) {
+		UnsafeControlAction toUnsafeControlAction(String invariantName, String sourceName) {
+			String explanation = buildExplanation(prefix, suffix, guideword, Optional.of(edit), controlAction,
+					alternateAction, Optional.empty());
+			return new UnsafeControlAction(sourceName, guideword, controlAction, explanation, invariantName);
+		}
+	};
+
+	/**
+	 * Classifies the edit that reaches cell (i, j) of the table, for a cell whose
+	 * path from the start has no UnsafeControlAction yet
+	 * 
+	 * @param safeActions   The safe trace, with the leading delay action
+	 * @param unsafeActions The unsafe trace, with the leading delay action
+	 * @return The classification, or empty if the edit isn't unsafe
+	 */
+	static Optional<Candidate> classifyEdit(List<String> safeActions, List<String> unsafeActions, Edit edit, int i,
+			int j, int d, int iPrime, int jPrime) {
+		Guideword guideword = null;
+		String controlAction = null;
+		Optional<String> alternateAction = Optional.empty();
+		List<String> context = null;
+		List<String> suffix = null;
+		if (edit == Edit.DELETE) {
+			String deletedAction = safeActions.get(i - 1);
+			if (deletedAction.equals(DELAY_ACTION)) {
+				controlAction = unsafeActions.get(j);
+				context = unsafeActions.subList(0, i - 1);
+				suffix = unsafeActions.subList(i, unsafeActions.size());
+				guideword = Guideword.TOO_EARLY;
+			} else {
+				controlAction = deletedAction;
+				context = unsafeActions.subList(0, i - 1);
+				suffix = unsafeActions.subList(i - 1, unsafeActions.size());
+				guideword = Guideword.NOT_PROVIDING;
+			}
+		} else if (edit == Edit.ADD) {
+			String addedAction = unsafeActions.get(j - 1);
+			if (addedAction.equals(DELAY_ACTION)) {
+				// We need to find the next non-wait action, though if the trace ends in all
+				// waits, there will be no subsequent action so we don't have a UCA
+				controlAction = null;
+				int k;
+				for (k = j; k < unsafeActions.size(); k++) {
+					if (!unsafeActions.get(k).equals(DELAY_ACTION)) {
+						controlAction = unsafeActions.get(k);
+						break;
+					}
+				}
+				context = unsafeActions.subList(0, i);
+				suffix = unsafeActions.subList(i + 1, unsafeActions.size());
+				guideword = Guideword.TOO_LATE;
+			} else {
+				controlAction = addedAction;
+				context = unsafeActions.subList(0, i);
+				suffix = unsafeActions.subList(i + 1, unsafeActions.size());
+				guideword = Guideword.PROVIDING;
+			}
+		} else if (edit == Edit.SUBSTITUTE) {
+			if (d == 1) {
+				String correctAction = safeActions.get(i - 1);
+				String incorrectAction = unsafeActions.get(j - 1);
+				if (incorrectAction.equals(DELAY_ACTION)) {
+					controlAction = correctAction;
+					context = unsafeActions.subList(0, i - 1);
+					suffix = unsafeActions.subList(i, unsafeActions.size());
+					guideword = Guideword.NOT_PROVIDING;
+				} else {
+					controlAction = incorrectAction;
+					alternateAction = Optional.of(correctAction);
+					context = unsafeActions.subList(0, i - 1);
+					suffix = unsafeActions.subList(i, unsafeActions.size());
+					guideword = Guideword.PROVIDING;
+				}
+			}
+		} else if (edit == Edit.TRANSPOSE) {
+			String correctAction = safeActions.get(iPrime - 1);
+			String incorrectAction = unsafeActions.get(jPrime - 1);
+			if (!incorrectAction.equals(DELAY_ACTION) && !correctAction.equals(DELAY_ACTION)) {
+				controlAction = incorrectAction;
+				alternateAction = Optional.of(correctAction);
+				context = unsafeActions.subList(0, i - 2);
+				suffix = unsafeActions.subList(i, unsafeActions.size());
+				guideword = Guideword.OUT_OF_SEQUENCE;
+			} else if (incorrectAction.equals(DELAY_ACTION)) {
+				controlAction = correctAction;
+				context = safeActions.subList(0, iPrime - 1);
+				suffix = unsafeActions.subList(iPrime + 1, unsafeActions.size());
+				guideword = Guideword.TOO_LATE;
+			} else if (correctAction.equals(DELAY_ACTION)) {
+				controlAction = incorrectAction;
+				context = unsafeActions.subList(0, iPrime - 1);
+				suffix = unsafeActions.subList(iPrime, unsafeActions.size());
+				guideword = Guideword.TOO_EARLY;
+			}
+		}
+		if (guideword == null || controlAction == null || context == null) {
+			return Optional.empty();
+		} else {
+			// Remove the "fake" delay action we inserted to make the initialization work
+			List<String> prefix = context.subList(1, context.size());
+			return Optional.of(new Candidate(guideword, edit, controlAction, alternateAction, prefix, suffix));
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+/**
+ * Picks an engine for each pair of traces. Alternative engines are asked in
+ * order whether they accept the pair, and the reference engine classifies the
+ * pairs none of them accept.
+ * 
+ * In cross-check mode a sample of the pairs given to alternative engines is
+ * classified by the reference engine too. A disagreement is reported on
+ * stderr, and the reference's result is used instead. Pairs whose table wouldn't
+ * fit in memory aren't checked.
+ */
+public class EngineDispatcher implements ClassificationEngine {
+
+	/**
+	 * The system property holding the share of pairs, from 0 to 1, that are
+	 * cross-checked by the default dispatcher, eg -Dfasr.classifier.crossCheck=0.01
+	 */
+	public static final String CROSS_CHECK_PROPERTY = "fasr.classifier.crossCheck";
+
+	/**
+	 * Pairs are sampled by hashing them into this many buckets, so the same pairs
+	 * are checked on every run
+	 */
+	private static final int SAMPLE_BUCKETS = 1 << 16;
+
+	private static EngineDispatcher defaultDispatcher;
+
+	private ClassificationEngine reference;
+	private List<ClassificationEngine> alternatives;
+	private double crossCheckRate;
+	private AtomicLong checked = new AtomicLong();
+	private AtomicLong mismatches = new AtomicLong();
+
+	/**
+	 * Creates a dispatcher
+	 * 
+	 * @param reference      Classifies the pairs no alternative accepts, and
+	 *                       checks the alternatives
+	 * @param alternatives   Engines to try first, in order
+	 * @param crossCheckRate The share of the alternatives' pairs, from 0 to 1,
+	 *                       that are checked against the reference
+	 */
+	public EngineDispatcher(ClassificationEngine reference, List<ClassificationEngine> alternatives,
+			double crossCheckRate) {
+		this.reference = reference;
+		this.alternatives = List.copyOf(alternatives);
+		this.crossCheckRate = crossCheckRate;
+	}
+
+	/**
+	 * Returns the dispatcher classifiers use by default: the reference engine, the
+	 * {@link LinearSpaceEngine} for tables too large for it, the engines
+	 * registered with {@link ServiceLoader}, and the cross-check rate from
+	 * {@link #CROSS_CHECK_PROPERTY}
+	 * 
+	 * @return The shared default dispatcher
+	 */
+	public static synchronized EngineDispatcher getDefault() {
+		if (defaultDispatcher == null) {
+			List<ClassificationEngine> alternatives = new ArrayList<>();
+			alternatives.add(new LinearSpaceEngine());
+			ServiceLoader.load(ClassificationEngine.class, EngineDispatcher.class.getClassLoader())
+					.forEach(alternatives::add);
+			double rate = Double.parseDouble(System.getProperty(CROSS_CHECK_PROPERTY, "0"));
+			defaultDispatcher = new EngineDispatcher(new DamerauLevenshteinEngine(), alternatives, rate);
+		}
+		return defaultDispatcher;
+	}
+
+	@Override
+	public String getName() {
+		return "dispatcher";
+	}
+
+	@Override
+	public boolean accepts(Workload workload) {
+		return true;
+	}
+
+	/**
+	 * Picks the engine for a pair of traces
+	 * 
+	 * @param workload The size of the pair
+	 * @return The first alternative that accepts the pair, or the reference
+	 */
+	public ClassificationEngine choose(Workload workload) {
+		for (ClassificationEngine engine : this.alternatives) {
+			if (engine.accepts(workload)) {
+				return engine;
+			}
+		}
+		return this.reference;
+	}
+
+	@Override
+	public UnsafeControlAction classify(List<String> safe, List<String> unsafe, String invariantName,
+			String sourceName) {
+		if (this.alternatives.isEmpty()) {
+			return this.reference.classify(safe, unsafe, invariantName, sourceName);
+		}
+		Workload workload = Workload.of(safe, unsafe);
+		ClassificationEngine engine = choose(workload);
+		UnsafeControlAction uca = engine.classify(safe, unsafe, invariantName, sourceName);
+		if (engine != this.reference && isSampled(safe, unsafe) && DamerauLevenshteinEngine.fits(workload)) {
+			this.checked.incrementAndGet();
+			UnsafeControlAction expected = this.reference.classify(safe, unsafe, invariantName, sourceName);
+			if (!expected.equals(uca)) {
+				this.mismatches.incrementAndGet();
+				System.err.println("The " + engine.getName() + " engine disagrees with the reference on " + safe
+						+ " -> " + unsafe + ": " + uca + " instead of " + expected);
+				return expected;
+			}
+		}
+		return uca;
+	}
+
+	/**
+	 * @return The number of pairs that have been cross-checked
+	 */
+	public long getCheckedCount() {
+		return this.checked.get();
+	}
+
+	/**
+	 * @return The number of cross-checked pairs an alternative engine got wrong
+	 */
+	public long getMismatchCount() {
+		return this.mismatches.get();
+	}
+
+	private boolean isSampled(List<String> safe, List<String> unsafe) {
+		int bucket = Math.floorMod(31 * safe.hashCode() + unsafe.hashCode(), SAMPLE_BUCKETS);
+		return bucket < this.crossCheckRate * SAMPLE_BUCKETS;
+	}
+}
@@ -0,0 +1,217 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import static ucaClassification.DamerauLevenshteinClassifier.DELAY_ACTION;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import ucaClassification.DamerauLevenshteinClassifier.Edit;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import ucaClassification.DamerauLevenshteinEngine.Candidate;
+
+/**
+ * Gives the same results as {@link DamerauLevenshteinEngine} without keeping
+ * the whole table, so that very long traces can be classified.
+ * 
+ * The reference engine keeps, for each cell, the first UnsafeControlAction on
+ * the cheapest path to it, and the answer is the one kept for the last cell.
+ * Each cell's value depends only on the cells above and to the left of it, and
+ * on one cell of the row before the last earlier occurrence of the unsafe
+ * action in the safe trace (for transpositions). So the table can be filled a
+ * row at a time, keeping the previous row and, for each distinct action in the
+ * unsafe trace, the row before its last occurrence in the safe trace. Memory is
+ * then proportional to the length of the unsafe trace times the number of
+ * distinct actions in it, rather than to the product of the traces' lengths,
+ * and the explanation is only built for the answer.
+ */
+public class LinearSpaceEngine implements ClassificationEngine {
+
+	/**
+	 * The system property holding the table size, in cells, above which this
+	 * engine is used, eg -Dfasr.classifier.linearThreshold=1000000
+	 */
+	public static final String THRESHOLD_PROPERTY = "fasr.classifier.linearThreshold";
+
+	/**
+	 * About 256MB of reference table
+	 */
+	public static final long DEFAULT_THRESHOLD = 1L << 22;
+
+	private long threshold;
+
+	/**
+	 * Creates an engine with the threshold from {@link #THRESHOLD_PROPERTY}, or the
+	 * default
+	 */
+	public LinearSpaceEngine() {
+		this(Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD));
+	}
+
+	/**
+	 * Creates an engine for tables larger than the supplied threshold
+	 * 
+	 * @param threshold The table size, in cells, above which this engine accepts
+	 *                  pairs
+	 */
+	public LinearSpaceEngine(long threshold) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	public String getName() {
+		return "linear-space";
+	}
+
+	@Override
+	public boolean accepts(Workload workload) {
+		return workload.cells() > this.threshold || !DamerauLevenshteinEngine.fits(workload);
+	}
+
+	/**
+	 * One row of the table: each cell's edit distance, and the first
+	 * classification on the cheapest path to it
+	 */
+	private static class Row {
+		int[] cost;
+		Candidate[] first;
+
+		Row(int size) {
+			this.cost = new int[size];
+			this.first = new Candidate[size];
+		}
+	}
+
+	@Override
+	public UnsafeControlAction classify(List<String> safe, List<String> unsafe, String invariantName,
+			String sourceName) {
+		// As in the reference engine, both traces start with an idle action so that
+		// edits at the start of the traces are recorded
+		List<String> s = new ArrayList<>(safe.size() + 1);
+		s.add(DELAY_ACTION);
+		s.addAll(safe);
+		List<String> u = new ArrayList<>(unsafe.size() + 1);
+		u.add(DELAY_ACTION);
+		u.addAll(unsafe);
+		int n = s.size();
+		int m = u.size();
+
+		// Actions in the unsafe trace are numbered from 1; actions only in the safe
+		// trace are 0, as they never start a transposition
+		Map<String, Integer> ids = new HashMap<>();
+		int[] unsafeIds = new int[m];
+		for (int j = 0; j < m; j++) {
+			unsafeIds[j] = ids.computeIfAbsent(u.get(j), k -> ids.size() + 1);
+		}
+		int[] safeIds = new int[n];
+		for (int i = 0; i < n; i++) {
+			safeIds[i] = ids.getOrDefault(s.get(i), 0);
+		}
+
+		// lastRow[c] is the last row i such that the safe trace's i-th action is c,
+		// and kept[c] the row before it
+		int[] lastRow = new int[ids.size() + 1];
+		Row[] kept = new Row[ids.size() + 1];
+		Deque<Row> spare = new ArrayDeque<>();
+
+		// mismatch[j] is 0 where the unsafe trace's j-th action matches the current
+		// row's action, and 1 elsewhere
+		TokenKernels kernels = TokenKernels.get();
+		int[] mismatch = new int[m];
+
+		Row previous = new Row(m + 1);
+		for (int j = 0; j <= m; j++) {
+			previous.cost[j] = j;
+		}
+		for (int i = 1; i <= n; i++) {
+			Row current = spare.isEmpty() ? new Row(m + 1) : spare.pop();
+			current.cost[0] = i;
+			current.first[0] = null;
+			int lastColumn = 0;
+			kernels.mismatches(unsafeIds, safeIds[i - 1], mismatch);
+			for (int j = 1; j <= m; j++) {
+				int d = mismatch[j - 1];
+				int delScore = previous.cost[j] + 1;
+				int addScore = current.cost[j - 1] + 1;
+				int subScore = previous.cost[j - 1] + d;
+				int cost = Math.min(delScore, Math.min(addScore, subScore));
+				int iPrime = lastRow[unsafeIds[j - 1]];
+				int jPrime = lastColumn;
+				if (iPrime > 0 && jPrime > 0) {
+					cost = Math.min(cost, kept[unsafeIds[j - 1]].cost[jPrime - 1] + (i - iPrime) + (j - jPrime) - 1);
+				}
+				if (d == 0) {
+					lastColumn = j;
+				}
+				// Ties are broken in the same order as in the reference engine
+				Edit edit;
+				Candidate first;
+				if (cost == delScore) {
+					edit = Edit.DELETE;
+					first = previous.first[j];
+				} else if (cost == addScore) {
+					edit = Edit.ADD;
+					first = current.first[j - 1];
+				} else if (cost == subScore) {
+					edit = Edit.SUBSTITUTE;
+					first = previous.first[j - 1];
+				} else {
+					edit = Edit.TRANSPOSE;
+					first = kept[unsafeIds[j - 1]].first[jPrime - 1];
+				}
+				if (first == null) {
+					first = DamerauLevenshteinEngine.classifyEdit(s, u, edit, i, j, d, iPrime, jPrime).orElse(null);
+				}
+				current.cost[j] = cost;
+				current.first[j] = first;
+			}
+
+			// The previous row becomes the one kept for this row's action, and whatever
+			// it replaces can be reused
+			int id = safeIds[i - 1];
+			Row released = previous;
+			if (id != 0) {
+				lastRow[id] = i;
+				released = kept[id];
+				kept[id] = previous;
+			}
+			if (released != null) {
+				spare.push(released);
+			}
+			previous = current;
+		}
+
+		Candidate answer = previous.first[m];
+		if (answer == null) {
+			throw new NoSuchElementException();
+		}
+		return answer.toUnsafeControlAction(invariantName, sourceName);
+	}
+}
@@ -0,0 +1,347 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import static ucaClassification.DamerauLevenshteinClassifier.DELAY_ACTION;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import ucaClassification.DamerauLevenshteinClassifier.Edit;
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import ucaClassification.DamerauLevenshteinEngine.Candidate;
+
+/**
+ * Classifies a batch of trace pairs the way {@link DamerauLevenshteinEngine}
+ * does, sharing work between pairs with the same safe trace.
+ * 
+ * Fortis compares many unsafe traces against each safe trace, and those unsafe
+ * traces usually share long prefixes. The unsafe traces for each safe trace are
+ * put in a trie, and the table is filled a column (one unsafe action) at a time
+ * during a depth-first walk of the trie, so the columns for a shared prefix are
+ * computed once and reused by every pair below it.
+ * 
+ * Some of the reference engine's decisions depend on what comes after a
+ * column: whether a delay is followed by another action, and how long the
+ * unsafe trace is. Each column therefore keeps two answers, one for when
+ * another action follows its run of delays and one for when none does, along
+ * with the shortest unsafe trace the reference could classify without failing.
+ * Pairs the reference would fail on are left for the caller to classify
+ * singly, so that they fail in exactly the same way.
+ */
+class SharedPrefixBatch {
+
+	/**
+	 * Pairs with larger tables are left to the single-pair engines, as the walk
+	 * keeps a whole column for each action in the current unsafe trace
+	 */
+	private static final long MAX_CELLS = Long.getLong(LinearSpaceEngine.THRESHOLD_PROPERTY,
+			LinearSpaceEngine.DEFAULT_THRESHOLD);
+
+	/**
+	 * Marks a cell the reference engine can never classify
+	 */
+	private static final int NEVER = Integer.MAX_VALUE;
+
+	/**
+	 * An edit in the table, to be classified once the whole unsafe trace is known
+	 */
+	private record Cell(Edit edit, int i, int j, int d, int iPrime, int jPrime) {
+	};
+
+	private static class Node {
+		Map<Integer, Node> children = new LinkedHashMap<>();
+		List<Integer> pairs = new ArrayList<>();
+	}
+
+	/**
+	 * One column of the table. "Followed" values assume another action comes after
+	 * the column's run of delays, "final" values that none does.
+	 */
+	private static class Column {
+		int action;
+		int[] cost;
+		Cell[] followed;
+		Cell[] last;
+		int followedNeed;
+		int lastNeed;
+		// The last column, up to this one, that isn't a delay
+		int lastAction;
+
+		Column(int rows) {
+			this.cost = new int[rows];
+			this.followed = new Cell[rows];
+			this.last = new Cell[rows];
+		}
+	}
+
+	private List<TracePair> pairs = new ArrayList<>();
+	private Map<List<String>, Node> roots = new LinkedHashMap<>();
+	private Map<String, Integer> ids = new HashMap<>();
+	private int delay;
+
+	SharedPrefixBatch() {
+		this.delay = id(DELAY_ACTION);
+	}
+
+	/**
+	 * Adds a pair to the batch, if it is small enough
+	 * 
+	 * @param pair A pair of traces that aren't identical
+	 * @return The pair's index in the batch, or -1 if it wasn't added
+	 */
+	int add(TracePair pair) {
+		if ((long) (pair.goodTrace().size() + 2) * (pair.badTrace().size() + 2) > MAX_CELLS) {
+			return -1;
+		}
+		Node node = this.roots.computeIfAbsent(pair.goodTrace(), k -> new Node());
+		node = node.children.computeIfAbsent(this.delay, k -> new Node());
+		for (String action : pair.badTrace()) {
+			node = node.children.computeIfAbsent(id(action), k -> new Node());
+		}
+		node.pairs.add(this.pairs.size());
+		this.pairs.add(pair);
+		return this.pairs.size() - 1;
+	}
+
+	/**
+	 * Classifies the pairs in the batch
+	 * 
+	 * @return The UnsafeControlAction for each pair, by index, or null for pairs
+	 *         the reference engine fails on
+	 */
+	UnsafeControlAction[] classify() {
+		UnsafeControlAction[] results = new UnsafeControlAction[this.pairs.size()];
+		for (Map.Entry<List<String>, Node> root : this.roots.entrySet()) {
+			walk(root.getKey(), root.getValue(), results);
+		}
+		return results;
+	}
+
+	private int id(String action) {
+		return this.ids.computeIfAbsent(action, k -> this.ids.size());
+	}
+
+	private void walk(List<String> safe, Node root, UnsafeControlAction[] results) {
+		List<String> s = new ArrayList<>(safe.size() + 1);
+		s.add(DELAY_ACTION);
+		s.addAll(safe);
+		int n = s.size();
+		int[] safeIds = new int[n];
+		for (int i = 0; i < n; i++) {
+			safeIds[i] = id(s.get(i));
+		}
+
+		// The columns for the current path through the trie, and for each action the
+		// last column it was in
+		List<Column> columns = new ArrayList<>();
+		int[] lastColumn = new int[this.ids.size()];
+		Column first = new Column(n + 1);
+		for (int i = 0; i <= n; i++) {
+			first.cost[i] = i;
+		}
+		columns.add(first);
+		int[] mismatch = new int[n];
+
+		Deque<Iterator<Map.Entry<Integer, Node>>> stack = new ArrayDeque<>();
+		Deque<Integer> replaced = new ArrayDeque<>();
+		stack.push(root.children.entrySet().iterator());
+		while (!stack.isEmpty()) {
+			if (!stack.peek().hasNext()) {
+				stack.pop();
+				Column done = columns.remove(columns.size() - 1);
+				if (done != first) {
+					lastColumn[done.action] = replaced.pop();
+				}
+				continue;
+			}
+			Map.Entry<Integer, Node> child = stack.peek().next();
+			Column column = fill(s, safeIds, columns, lastColumn, child.getKey(), mismatch);
+			replaced.push(lastColumn[column.action]);
+			lastColumn[column.action] = columns.size();
+			columns.add(column);
+			for (int index : child.getValue().pairs) {
+				results[index] = resolve(s, columns, this.pairs.get(index));
+			}
+			stack.push(child.getValue().children.entrySet().iterator());
+		}
+	}
+
+	/**
+	 * Computes the next column of the table, following the reference engine cell
+	 * by cell. The mismatch array is scratch space as long as the safe trace.
+	 */
+	private Column fill(List<String> s, int[] safeIds, List<Column> columns, int[] lastColumn, int action,
+			int[] mismatch) {
+		int n = s.size();
+		int j = columns.size();
+		Column previous = columns.get(j - 1);
+		Column column = new Column(n + 1);
+		column.action = action;
+		column.cost[0] = j;
+		// A delay column's answers depend on what follows it, other columns' don't,
+		// and an action after earlier delay runs means they were followed
+		boolean isDelay = action == this.delay;
+		column.followedNeed = previous.followedNeed;
+		column.lastNeed = isDelay ? previous.lastNeed : previous.followedNeed;
+		column.lastAction = isDelay ? previous.lastAction : j;
+		int iPrime = 0;
+		TokenKernels.get().mismatches(safeIds, action, mismatch);
+		for (int i = 1; i <= n; i++) {
+			int d = mismatch[i - 1];
+			int delScore = column.cost[i - 1] + 1;
+			int addScore = previous.cost[i] + 1;
+			int subScore = previous.cost[i - 1] + d;
+			int cost = Math.min(delScore, Math.min(addScore, subScore));
+			int jPrime = lastColumn[safeIds[i - 1]];
+			Column transposed = null;
+			if (iPrime > 0 && jPrime > 0) {
+				transposed = columns.get(jPrime - 1);
+				cost = Math.min(cost, transposed.cost[iPrime - 1] + (i - iPrime) + (j - jPrime) - 1);
+			}
+			Edit edit;
+			Cell followed;
+			Cell last;
+			if (cost == delScore) {
+				edit = Edit.DELETE;
+				followed = column.followed[i - 1];
+				last = column.last[i - 1];
+			} else if (cost == addScore) {
+				edit = Edit.ADD;
+				followed = previous.followed[i];
+				last = isDelay ? previous.last[i] : previous.followed[i];
+			} else if (cost == subScore) {
+				edit = Edit.SUBSTITUTE;
+				followed = previous.followed[i - 1];
+				last = isDelay ? previous.last[i - 1] : previous.followed[i - 1];
+			} else {
+				edit = Edit.TRANSPOSE;
+				followed = transposed.followed[iPrime - 1];
+				// Only delays may come between the transposed column and this one for its
+				// final answer to apply
+				last = isDelay && jPrime - 1 >= column.lastAction ? transposed.last[iPrime - 1]
+						: transposed.followed[iPrime - 1];
+			}
+			if (followed == null || last == null) {
+				Cell cell = new Cell(edit, i, j, d, iPrime, jPrime);
+				int need = need(s, cell, action);
+				boolean unsafe = isUnsafe(s, cell, action);
+				if (followed == null) {
+					column.followedNeed = Math.max(column.followedNeed, need);
+					followed = unsafe ? cell : null;
+				}
+				if (last == null) {
+					column.lastNeed = Math.max(column.lastNeed, need);
+					// An added delay with nothing after it doesn't delay anything
+					last = unsafe && !(edit == Edit.ADD && isDelay) ? cell : null;
+				}
+			}
+			column.cost[i] = cost;
+			column.followed[i] = followed;
+			column.last[i] = last;
+			if (d == 0) {
+				iPrime = i;
+			}
+		}
+		return column;
+	}
+
+	/**
+	 * Classifies a pair whose unsafe trace ends at the last column
+	 */
+	private UnsafeControlAction resolve(List<String> s, List<Column> columns, TracePair pair) {
+		Column column = columns.get(columns.size() - 1);
+		Cell cell = column.last[s.size()];
+		if (cell == null || column.lastNeed > columns.size() - 1) {
+			return null;
+		}
+		List<String> u = new ArrayList<>(pair.badTrace().size() + 1);
+		u.add(DELAY_ACTION);
+		u.addAll(pair.badTrace());
+		Optional<Candidate> candidate = DamerauLevenshteinEngine.classifyEdit(s, u, cell.edit, cell.i, cell.j,
+				cell.d, cell.iPrime, cell.jPrime);
+		if (candidate.isEmpty()) {
+			return null;
+		}
+		return candidate.get().toUnsafeControlAction(String.join(",", pair.violatedInvs()),
+				String.join(",", pair.violatingComponents()));
+	}
+
+	/**
+	 * Whether the reference engine classifies an edit as unsafe, assuming an
+	 * action follows it. This follows
+	 * {@link DamerauLevenshteinEngine#classifyEdit}.
+	 */
+	private boolean isUnsafe(List<String> s, Cell cell, int action) {
+		if (cell.edit == Edit.SUBSTITUTE) {
+			return cell.d == 1;
+		} else if (cell.edit == Edit.TRANSPOSE) {
+			// The transposed actions are the row's action and this column's
+			return !(s.get(cell.i - 1).equals(DELAY_ACTION) && action == this.delay);
+		}
+		return true;
+	}
+
+	/**
+	 * The length the unsafe trace, with its leading delay, must have for the
+	 * reference engine to classify an edit without failing, or NEVER. This
+	 * follows the indexing in {@link DamerauLevenshteinEngine#classifyEdit}.
+	 */
+	private int need(List<String> s, Cell cell, int action) {
+		int i = cell.i;
+		int iPrime = cell.iPrime;
+		if (cell.edit == Edit.DELETE) {
+			if (i < 2) {
+				return NEVER;
+			}
+			return s.get(i - 1).equals(DELAY_ACTION) ? Math.max(cell.j + 1, i) : i - 1;
+		} else if (cell.edit == Edit.ADD) {
+			return i + 1;
+		} else if (cell.edit == Edit.SUBSTITUTE) {
+			if (cell.d == 0) {
+				return 0;
+			}
+			return i < 2 ? NEVER : i;
+		} else {
+			boolean correctDelay = action == this.delay;
+			boolean incorrectDelay = s.get(i - 1).equals(DELAY_ACTION);
+			if (!correctDelay && !incorrectDelay) {
+				return i < 3 ? NEVER : i;
+			} else if (incorrectDelay && !correctDelay) {
+				return iPrime < 2 ? NEVER : iPrime + 1;
+			} else if (correctDelay && !incorrectDelay) {
+				return iPrime < 2 ? NEVER : iPrime;
+			}
+			return 0;
+		}
+	}
+}
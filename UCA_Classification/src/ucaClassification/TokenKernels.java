@@ -0,0 +1,152 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import static ucaClassification.DamerauLevenshteinClassifier.DELAY_ACTION;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The bulk comparisons the classifier makes between traces whose actions have
+ * been numbered: finding where two traces first differ, counting the delay
+ * actions in part of a trace, and marking which actions in a trace differ from
+ * one action, as the edit-distance table does for each row or column.
+ * 
+ * These are the scalar versions. When the JVM is started with
+ * {@code --add-modules jdk.incubator.vector} and VectorTokenKernels (built by
+ * the standalone jar's vector profile) is on the class path, it is used
+ * instead, and compares a vector of actions at a time. Setting
+ * {@code -Dfasr.classifier.vector=false} keeps the scalar versions.
+ */
+class TokenKernels {
+
+	/**
+	 * The system property that turns the vector kernels off, eg
+	 * -Dfasr.classifier.vector=false
+	 */
+	static final String VECTOR_PROPERTY = "fasr.classifier.vector";
+
+	/**
+	 * The number {@link #tokenize(List, List)} always gives the delay action
+	 */
+	static final int DELAY_TOKEN = 0;
+
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+	private static final String VECTOR_CLASS = "ucaClassification.VectorTokenKernels";
+
+	private static final TokenKernels INSTANCE = load();
+
+	/**
+	 * @return The kernels chosen when the class was loaded
+	 */
+	static TokenKernels get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Uses the vector kernels if they were built, their module is available and
+	 * they haven't been turned off, and the scalar ones otherwise
+	 */
+	private static TokenKernels load() {
+		if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))
+				|| ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+			return new TokenKernels();
+		}
+		try {
+			return (TokenKernels) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return new TokenKernels();
+		}
+	}
+
+	String getName() {
+		return "scalar";
+	}
+
+	/**
+	 * Numbers the actions of a pair of traces, so that equal actions get equal
+	 * numbers. The delay action is always {@link #DELAY_TOKEN}.
+	 * 
+	 * @return The numbered safe trace, then the numbered unsafe trace
+	 */
+	static int[][] tokenize(List<String> safe, List<String> unsafe) {
+		Map<String, Integer> ids = new HashMap<>();
+		ids.put(DELAY_ACTION, DELAY_TOKEN);
+		return new int[][] { tokenize(safe, ids), tokenize(unsafe, ids) };
+	}
+
+	private static int[] tokenize(List<String> trace, Map<String, Integer> ids) {
+		int[] tokens = new int[trace.size()];
+		int i = 0;
+		for (String action : trace) {
+			tokens[i++] = ids.computeIfAbsent(action, k -> ids.size());
+		}
+		return tokens;
+	}
+
+	/**
+	 * Finds the first position at which two traces differ
+	 * 
+	 * @return The index of the first difference, the length of the shorter trace
+	 *         if it is a prefix of the other, or -1 if the traces are equal
+	 */
+	int mismatch(int[] a, int[] b) {
+		return Arrays.mismatch(a, b);
+	}
+
+	/**
+	 * Counts the occurrences of an action in part of a trace
+	 * 
+	 * @param tokens A numbered trace
+	 * @param from   The first index counted
+	 * @param to     The index after the last one counted
+	 * @param token  The action to count
+	 */
+	int count(int[] tokens, int from, int to, int token) {
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			if (tokens[i] == token) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Marks the actions in a trace that differ from one action
+	 * 
+	 * @param tokens A numbered trace
+	 * @param token  The action compared against
+	 * @param result Set to 0 where the trace has the action and 1 elsewhere; at
+	 *               least as long as the trace
+	 */
+	void mismatches(int[] tokens, int token, int[] result) {
+		for (int i = 0; i < tokens.length; i++) {
+			result[i] = tokens[i] == token ? 0 : 1;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A compression format for Fortis output and classifier reports. Fortis output
+ * is very repetitive, so it is often stored compressed; the classifier
+ * recognizes compressed input by its first few bytes and decodes it as it
+ * reads.
+ * 
+ * {@link TraceCodecs#GZIP} is built in. Other codecs (eg, zstd or lz4, when
+ * their libraries are on the classpath) are found with
+ * {@link java.util.ServiceLoader}, so a codec in another jar is registered by
+ * naming it in META-INF/services/ucaClassification.TraceCodec.
+ */
+public interface TraceCodec {
+
+	/**
+	 * @return The name used to ask for this codec, eg "gzip"
+	 */
+	public String getName();
+
+	/**
+	 * Checks whether a stream is in this format
+	 * 
+	 * @param header The first bytes of the stream
+	 * @param length The number of bytes of header that were read, which may be
+	 *               fewer than {@link TraceCodecs#HEADER_LENGTH} for short
+	 *               streams
+	 * @return True if the stream should be decoded with this codec
+	 */
+	public boolean matches(byte[] header, int length);
+
+	/**
+	 * @param in A stream in this format, positioned at its start
+	 * @return A stream of the decoded bytes
+	 * @throws IOException If the stream can't be read or isn't in this format
+	 */
+	public InputStream decode(InputStream in) throws IOException;
+
+	/**
+	 * @param out Where the encoded bytes are written
+	 * @return A stream that encodes what is written to it; closing it finishes
+	 *         the encoding and closes out
+	 * @throws IOException If out can't be written
+	 */
+	public OutputStream encode(OutputStream out) throws IOException;
+}
@@ -0,0 +1,312 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opens possibly-compressed Fortis output and compresses classifier reports.
+ * 
+ * Compressed input is decoded on a separate read-ahead thread, so that reading
+ * and decompressing the next part of a large file overlaps with classifying
+ * the part before it. Uncompressed input is read directly.
+ */
+public final class TraceCodecs {
+
+	/**
+	 * The number of leading bytes codecs are shown to recognize their format
+	 */
+	public static final int HEADER_LENGTH = 8;
+
+	/**
+	 * The system property naming the codec the command line compresses its output
+	 * with, eg "gzip"; unset for uncompressed output
+	 */
+	public static final String OUTPUT_CODEC_PROPERTY = "fasr.classifier.outputCodec";
+
+	/**
+	 * gzip, from java.util.zip
+	 */
+	public static final TraceCodec GZIP = new GzipCodec();
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static List<TraceCodec> codecs;
+
+	private TraceCodecs() {
+	}
+
+	/**
+	 * @return gzip followed by the codecs registered with {@link ServiceLoader}
+	 */
+	public static synchronized List<TraceCodec> getCodecs() {
+		if (codecs == null) {
+			List<TraceCodec> found = new ArrayList<>();
+			found.add(GZIP);
+			ServiceLoader.load(TraceCodec.class, TraceCodecs.class.getClassLoader()).forEach(found::add);
+			codecs = List.copyOf(found);
+		}
+		return codecs;
+	}
+
+	/**
+	 * @param name A codec's name
+	 * @return The codec
+	 * @throws IllegalArgumentException If no codec has that name
+	 */
+	public static TraceCodec forName(String name) {
+		for (TraceCodec codec : getCodecs()) {
+			if (codec.getName().equalsIgnoreCase(name)) {
+				return codec;
+			}
+		}
+		throw new IllegalArgumentException("Unknown codec " + name + "; available codecs are "
+				+ getCodecs().stream().map(TraceCodec::getName).collect(Collectors.joining(", ")));
+	}
+
+	/**
+	 * Opens a file of Fortis output, decoding it if it is compressed
+	 * 
+	 * @param path The file
+	 * @return The file's decoded contents
+	 * @throws IOException If the file can't be read
+	 */
+	public static InputStream open(Path path) throws IOException {
+		return open(Files.newInputStream(path));
+	}
+
+	/**
+	 * Decodes a stream of Fortis output if it is compressed
+	 * 
+	 * @param in The stream, positioned at its start
+	 * @return The decoded stream; closing it closes in
+	 * @throws IOException If in can't be read
+	 */
+	public static InputStream open(InputStream in) throws IOException {
+		BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+		buffered.mark(HEADER_LENGTH);
+		byte[] header = buffered.readNBytes(HEADER_LENGTH);
+		buffered.reset();
+		for (TraceCodec codec : getCodecs()) {
+			if (codec.matches(Arrays.copyOf(header, HEADER_LENGTH), header.length)) {
+				return open(buffered, codec);
+			}
+		}
+		return buffered;
+	}
+
+	/**
+	 * Decodes a stream with a given codec on a read-ahead thread. Anything the
+	 * codec throws is rethrown by every read from then on, wrapped in an
+	 * IOException unless it is an Error.
+	 * 
+	 * @param in    The stream, positioned at its start
+	 * @param codec The codec the stream is in
+	 * @return The decoded stream; closing it closes in
+	 * @throws IOException If the codec can't start decoding in
+	 */
+	public static InputStream open(InputStream in, TraceCodec codec) throws IOException {
+		return new ReadAheadInputStream(codec.decode(in));
+	}
+
+	/**
+	 * Compresses a stream with the named codec
+	 * 
+	 * @param out   Where the output is written
+	 * @param codec The codec's name, or null or empty to leave the output
+	 *              uncompressed
+	 * @return A stream to write the output to; close it to finish the output
+	 * @throws IOException If out can't be written
+	 */
+	public static OutputStream compress(OutputStream out, String codec) throws IOException {
+		if (codec == null || codec.isEmpty()) {
+			return out;
+		}
+		return forName(codec).encode(out);
+	}
+
+	private static class GzipCodec implements TraceCodec {
+
+		@Override
+		public String getName() {
+			return "gzip";
+		}
+
+		@Override
+		public boolean matches(byte[] header, int length) {
+			return length >= 2 && header[0] == (byte) (GZIPInputStream.GZIP_MAGIC & 0xff)
+					&& header[1] == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+		}
+
+		@Override
+		public InputStream decode(InputStream in) throws IOException {
+			return new GZIPInputStream(in, BUFFER_SIZE);
+		}
+
+		@Override
+		public OutputStream encode(OutputStream out) throws IOException {
+			return new GZIPOutputStream(out, BUFFER_SIZE);
+		}
+	}
+
+	/**
+	 * Reads a stream on its own thread, up to a fixed number of chunks ahead of
+	 * the reader
+	 */
+	private static class ReadAheadInputStream extends InputStream {
+		private static final int CHUNKS_AHEAD = 16;
+		private static final byte[] END = new byte[0];
+
+		private InputStream source;
+		private BlockingQueue<byte[]> chunks;
+		private Thread reader;
+		private volatile Throwable error;
+		private volatile boolean closed;
+		private byte[] chunk;
+		private int position;
+
+		ReadAheadInputStream(InputStream source) {
+			this.source = source;
+			this.chunks = new ArrayBlockingQueue<>(CHUNKS_AHEAD);
+			this.chunk = new byte[0];
+			this.position = 0;
+			this.reader = new Thread(this::readAhead, "trace read-ahead");
+			this.reader.setDaemon(true);
+			this.reader.start();
+		}
+
+		private void readAhead() {
+			try {
+				byte[] buffer = new byte[BUFFER_SIZE];
+				int n = this.source.read(buffer);
+				while (n >= 0 && !this.closed) {
+					if (n > 0) {
+						this.chunks.put(Arrays.copyOf(buffer, n));
+					}
+					n = this.source.read(buffer);
+				}
+			} catch (InterruptedException e) {
+				// Closed while waiting for the reader to catch up
+			} catch (Throwable e) {
+				// Kept for the reader, including a codec's RuntimeException or Error
+				this.error = e;
+			} finally {
+				// Always sent, so the reader never waits for a chunk that won't come
+				try {
+					this.chunks.put(END);
+				} catch (InterruptedException e) {
+					// Closed while waiting for the reader to catch up
+				}
+			}
+		}
+
+		// Throws what the read-ahead thread failed with, if anything
+		private void rethrow() throws IOException {
+			Throwable e = this.error;
+			if (e instanceof Error err) {
+				throw err;
+			} else if (e != null) {
+				throw new IOException(e.getMessage(), e);
+			}
+		}
+
+		// Returns false at the end of the stream
+		private boolean fill() throws IOException {
+			if (this.chunk == END) {
+				rethrow();
+				return false;
+			}
+			if (this.position < this.chunk.length) {
+				return true;
+			}
+			if (this.closed) {
+				throw new IOException("Stream closed");
+			}
+			try {
+				this.chunk = this.chunks.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while reading", e);
+			}
+			this.position = 0;
+			if (this.chunk == END) {
+				rethrow();
+				return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!fill()) {
+				return -1;
+			}
+			return this.chunk[this.position++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int n = Math.min(len, this.chunk.length - this.position);
+			System.arraycopy(this.chunk, this.position, b, off, n);
+			this.position += n;
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return this.chunk == END ? 0 : this.chunk.length - this.position;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			this.reader.interrupt();
+			this.chunks.clear();
+			this.source.close();
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ucaClassification.CheckpointedRun;
+import ucaClassification.DamerauLevenshteinClassifier;
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+class CheckpointedRunTests {
+	private static DamerauLevenshteinClassifier dlc = new DamerauLevenshteinClassifier();
+	private static Path input = Path.of("resources/fortis-out.json");
+
+	@TempDir
+	Path dir;
+
+	private static List<UnsafeControlAction> expected() throws Exception {
+		var pairs = new ArrayList<TracePair>();
+		try (var it = DamerauLevenshteinClassifier.readFortisOutput(Files.newInputStream(input))) {
+			it.forEachRemaining(pairs::add);
+		}
+		var results = new LinkedHashSet<>(dlc.classifyAll(pairs, (pair, e) -> {
+		}));
+		results.remove(null);
+		return new ArrayList<>(results);
+	}
+
+	@Test
+	void testMatchesUninterruptedRun() throws Exception {
+		var actual = new CheckpointedRun(dlc, dir.resolve("run.journal"), 3).run(input);
+		assertEquals(expected(), actual);
+	}
+
+	@Test
+	void testResumeAfterKill() throws Exception {
+		Path journal = dir.resolve("run.journal");
+		new CheckpointedRun(dlc, journal, 3).run(input);
+		// Cut the journal off part way through a line, as if the run had been killed
+		long size = Files.size(journal);
+		try (var channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+			channel.truncate(size * 3 / 5);
+		}
+		var actual = new CheckpointedRun(dlc, journal, 3).run(input);
+		assertEquals(expected(), actual);
+		// Running again with a finished journal changes nothing
+		assertEquals(expected(), new CheckpointedRun(dlc, journal, 3).run(input));
+	}
+
+	@Test
+	void testRefusesOtherInput() throws Exception {
+		Path journal = dir.resolve("run.journal");
+		new CheckpointedRun(dlc, journal, 3).run(input);
+		Path other = dir.resolve("other.json");
+		Files.writeString(other, Files.readString(input) + "\n");
+		assertThrows(IOException.class, () -> new CheckpointedRun(dlc, journal, 3).run(other));
+		// The journal is left as it was for the input it belongs to
+		assertEquals(expected(), new CheckpointedRun(dlc, journal, 3).run(input));
+	}
+}
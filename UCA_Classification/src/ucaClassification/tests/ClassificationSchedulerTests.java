@@ -0,0 +1,145 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import ucaClassification.ClassificationScheduler;
+import ucaClassification.DamerauLevenshteinClassifier;
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+class ClassificationSchedulerTests {
+	private static DamerauLevenshteinClassifier dlc = new DamerauLevenshteinClassifier();
+
+	private static List<TracePair> pairs() {
+		var pairs = new ArrayList<TracePair>();
+		for (int size = 1; size <= 200; size *= 3) {
+			var safe = new ArrayList<String>(Collections.nCopies(size, "Wait"));
+			safe.add("TurnBSCUOn");
+			var unsafe = new ArrayList<String>(safe);
+			unsafe.add(0, "SelfCheck");
+			pairs.add(new TracePair(safe, unsafe, List.of("BSCU"), List.of("NoSkid" + size)));
+		}
+		pairs.add(new TracePair(List.of("TurnBSCUOn"), List.of("TurnBSCUOn"), List.of("BSCU"), List.of("NoSkid")));
+		return pairs;
+	}
+
+	@Test
+	void testMatchesSingle() throws Exception {
+		var pairs = pairs();
+		var failed = new ArrayList<TracePair>();
+		var actual = new ClassificationScheduler(Collections.emptyMap(), 4, 1L << 30).classifyAll(pairs,
+				(pair, e) -> failed.add(pair));
+		for (int k = 0; k < pairs.size() - 1; k++) {
+			assertEquals(dlc.classify(pairs.get(k)), actual.get(k));
+		}
+		assertNull(actual.get(pairs.size() - 1));
+		assertEquals(List.of(pairs.get(pairs.size() - 1)), failed);
+	}
+
+	@Test
+	void testOversizePairsSpill() throws Exception {
+		// Too small a budget for any table, so every pair uses the low-memory engine
+		var pairs = pairs();
+		var actual = new ClassificationScheduler(Collections.emptyMap(), 2, 1).classifyAll(pairs, (pair, e) -> {
+		});
+		for (int k = 0; k < pairs.size() - 1; k++) {
+			assertEquals(dlc.classify(pairs.get(k)), actual.get(k));
+		}
+	}
+
+	@Test
+	void testStaysWithinBudget() throws Exception {
+		// Room for the largest pair, but not for it and the next together
+		var pairs = pairs();
+		long budget = 500_000;
+		var inFlight = new AtomicLong();
+		var peak = new AtomicLong();
+		var scheduler = new ClassificationScheduler(Collections.emptyMap(), 8, budget) {
+			@Override
+			protected UnsafeControlAction classify(DamerauLevenshteinClassifier dlc, TracePair pair) {
+				long bytes = ClassificationScheduler.footprint(pair);
+				peak.accumulateAndGet(inFlight.addAndGet(bytes), Math::max);
+				try {
+					Thread.sleep(20);
+					return super.classify(dlc, pair);
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				} finally {
+					inFlight.addAndGet(-bytes);
+				}
+			}
+		};
+		scheduler.classifyAll(pairs, (pair, e) -> {
+		});
+		assertTrue(ClassificationScheduler.footprint(pairs.get(pairs.size() - 2)) <= budget);
+		assertTrue(peak.get() <= budget, peak + " > " + budget);
+	}
+
+	@Test
+	void testLargestFirst() throws Exception {
+		var pairs = pairs();
+		var started = Collections.synchronizedList(new ArrayList<TracePair>());
+		var scheduler = new ClassificationScheduler(Collections.emptyMap(), 1, 1L << 30) {
+			@Override
+			protected UnsafeControlAction classify(DamerauLevenshteinClassifier dlc, TracePair pair) {
+				started.add(pair);
+				return super.classify(dlc, pair);
+			}
+		};
+		scheduler.classifyAll(pairs, (pair, e) -> {
+		});
+		var expected = new ArrayList<TracePair>(pairs);
+		expected.sort(Comparator.comparingLong(ClassificationScheduler::footprint).reversed());
+		assertEquals(expected, started);
+	}
+
+	@Test
+	void testErrorsPropagate() {
+		var pairs = pairs();
+		var scheduler = new ClassificationScheduler(Collections.emptyMap(), 4, 1L << 30) {
+			@Override
+			protected UnsafeControlAction classify(DamerauLevenshteinClassifier dlc, TracePair pair) {
+				if (pair == pairs.get(1)) {
+					throw new StackOverflowError();
+				}
+				return super.classify(dlc, pair);
+			}
+		};
+		assertThrows(StackOverflowError.class, () -> scheduler.classifyAll(pairs, (pair, e) -> {
+		}));
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ucaClassification.ClassifierServer;
+import ucaClassification.DamerauLevenshteinClassifier;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+class ClassifierServerTests {
+	private static String pairs = "{\"goodTrace\":[\"TurnBSCUOn\",\"SelfCheck\"],\"badTrace\":[\"TurnBSCUOn\",\"Wait\",\"SelfCheck\"],"
+			+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]}\n"
+			+ "{\"goodTrace\":[\"TurnBSCUOn\"],\"badTrace\":[\"Wait\",\"Wait\",\"Wait\"],"
+			+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]}\n";
+
+	private DamerauLevenshteinClassifier dlc = new DamerauLevenshteinClassifier();
+	private ClassifierServer server;
+	private HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = new ClassifierServer(dlc, 0, 2);
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop();
+	}
+
+	private HttpResponse<String> post(String path, String body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+				.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	void testClassifyNdjson() throws Exception {
+		HttpResponse<String> response = post("/classify", pairs);
+		assertEquals(200, response.statusCode());
+		ObjectMapper mapper = new ObjectMapper();
+		List<String> lines = response.body().lines().toList();
+		assertEquals(2, lines.size());
+		var expected = dlc.classifyFortisOutput("[" + pairs.trim().replace("\n", ",") + "]");
+		for (String line : lines) {
+			assertTrue(expected.contains(mapper.readValue(line, UnsafeControlAction.class)));
+		}
+	}
+
+	@Test
+	void testBadInput() throws Exception {
+		assertEquals(400, post("/classify", "{\"goodTrace\":[\"A\"],\"badTrace\":").statusCode());
+	}
+
+	@Test
+	void testSkipsUnclassifiablePairs() throws Exception {
+		// Identical traces, and traces ending in Wait runs that the table can't
+		// classify, around a pair that can be
+		String body = "{\"goodTrace\":[\"A\"],\"badTrace\":[\"A\"],"
+				+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]}\n"
+				+ "{\"goodTrace\":[\"A\",\"Wait\"],\"badTrace\":[\"A\",\"Wait\",\"Wait\"],"
+				+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]}\n"
+				+ pairs
+				+ "{\"goodTrace\":[\"A\",\"Wait\",\"Wait\"],\"badTrace\":[\"A\",\"Wait\"],"
+				+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]}\n";
+		HttpResponse<String> response = post("/classify", body);
+		assertEquals(200, response.statusCode());
+		List<String> lines = response.body().lines().toList();
+		assertEquals(2, lines.size());
+		for (String line : lines) {
+			assertFalse(line.contains("\"error\""));
+		}
+	}
+
+	@Test
+	void testShutdown() throws Exception {
+		assertEquals(202, post("/shutdown", "").statusCode());
+		server.awaitStop();
+	}
+}
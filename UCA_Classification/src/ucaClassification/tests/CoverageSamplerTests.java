@@ -0,0 +1,101 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ucaClassification.CoverageSampler;
+import ucaClassification.CoverageSampler.Coverage;
+import ucaClassification.CoverageSampler.Covered;
+import ucaClassification.DamerauLevenshteinClassifier;
+import ucaClassification.DamerauLevenshteinClassifier.TracePair;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+
+class CoverageSamplerTests {
+	private static DamerauLevenshteinClassifier dlc = new DamerauLevenshteinClassifier();
+	private static String input = "resources/fortis-out.json";
+
+	@Test
+	void testFullCoverage() throws Exception {
+		Coverage coverage = new CoverageSampler(dlc, Integer.MAX_VALUE, 0, 2, 0).sample(new FileInputStream(input));
+		assertTrue(coverage.complete());
+		assertEquals(22, coverage.pairsRead());
+		assertEquals(9, coverage.covered().size());
+		int classified = 0;
+		for (Covered c : coverage.covered()) {
+			classified += c.occurrences();
+			assertEquals(Math.min(2, c.occurrences()), c.samples().size());
+			c.samples().forEach(uca -> {
+				assertEquals(c.guideword(), uca.guideword());
+				assertEquals(c.controlAction(), uca.controlAction());
+			});
+		}
+		// The last pair's traces are identical, so it can't be classified
+		assertEquals(21, classified);
+	}
+
+	@Test
+	void testStopsEarly() throws Exception {
+		Coverage target = new CoverageSampler(dlc, Integer.MAX_VALUE, 3, 1, 0).sample(new FileInputStream(input));
+		assertFalse(target.complete());
+		assertEquals(3, target.covered().size());
+		Coverage patience = new CoverageSampler(dlc, 1, 0, 1, 0).sample(new FileInputStream(input));
+		assertFalse(patience.complete());
+		assertTrue(patience.pairsRead() < 22);
+	}
+
+	@Test
+	void testSkippedPairsDontCount() throws Exception {
+		var all = new ArrayList<TracePair>();
+		try (var it = DamerauLevenshteinClassifier.readFortisOutput(new FileInputStream(input))) {
+			it.forEachRemaining(all::add);
+		}
+		// The first pair, three that can't be classified, then one of another kind
+		TracePair first = all.get(0);
+		UnsafeControlAction uca = dlc.classify(first);
+		TracePair other = all.stream().filter(pair -> {
+			UnsafeControlAction o = dlc.classify(pair);
+			return o.guideword() != uca.guideword() || !o.controlAction().equals(uca.controlAction());
+		}).findFirst().get();
+		TracePair identical = new TracePair(first.goodTrace(), first.goodTrace(), List.of("BSCU"), List.of());
+		var pairs = List.of(first, identical, identical, identical, other);
+		byte[] json = new ObjectMapper().writeValueAsBytes(pairs);
+
+		Coverage coverage = new CoverageSampler(dlc, 1, 0, 1, 0).sample(new ByteArrayInputStream(json));
+		assertTrue(coverage.complete());
+		assertEquals(5, coverage.pairsRead());
+		assertEquals(2, coverage.covered().size());
+	}
+}
@@ -26,10 +26,16 @@ package ucaClassification.tests;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.AfterAll;
@@ -278,6 +284,24 @@ class DamerauLevenshteinTests {
 			var actual = dlc.classify(safe, unsafe, invariantName, sourceName);
 			assertEquals(expected, actual);
 		}
+
+		@Test
+		void testLongActivity() {
+			// Long enough to span several vectors, with some left over
+			var safe = new ArrayList<String>(List.of("Init", "Sys.TurnPumpOn"));
+			safe.addAll(Collections.nCopies(41, "Wait"));
+			safe.add("Sys.TurnPumpOff");
+			var unsafe = new ArrayList<String>(List.of("Init", "Sys.TurnPumpOn"));
+			unsafe.addAll(Collections.nCopies(37, "Wait"));
+			unsafe.add("Sys.TurnPumpOff");
+			var actual = dlc.classify(safe, unsafe, invariantName, sourceName);
+			assertEquals(DamerauLevenshteinClassifier.Guideword.STOPPED_TOO_SOON, actual.guideword());
+			assertEquals("Sys.TurnPumpOff", actual.controlAction());
+			var prefix = "\"" + String.join("\" -> \"", unsafe.subList(0, 39)) + "\"";
+			assertEquals("After " + prefix
+					+ " the environment should have performed an additional \"Wait\" but didn't; \"Sys.TurnPumpOff\" was early and stopped the \"FillTank\" activity too soon. It subsequently performed \"Wait\" -> \"Wait\" -> \"Sys.TurnPumpOff\".",
+					actual.context());
+		}
 	}
 
 //	@Test
@@ -318,6 +342,19 @@ class DamerauLevenshteinTests {
 			assertEquals(expected, actual);
 		}
 
+		@Test
+		void testLongDelayRun() {
+			// Too large for the edit-distance table, which would need 100 million cells
+			var safe = new ArrayList<String>(Collections.nCopies(10000, "Wait"));
+			safe.add(0, "TurnBSCUOn");
+			safe.add("TurnBSCUOff");
+			var unsafe = new ArrayList<String>(safe);
+			unsafe.add(1, "Wait");
+			var actual = dlc.classify(safe, unsafe, invariantName, sourceName);
+			assertEquals(DamerauLevenshteinClassifier.Guideword.TOO_LATE, actual.guideword());
+			assertEquals("TurnBSCUOff", actual.controlAction());
+		}
+
 		@Test
 		void testSingleElementSafeTrace() {
 			var safe = Arrays.asList("TurnBSCUOn");
@@ -347,6 +384,76 @@ class DamerauLevenshteinTests {
 		}
 	}
 
+	@Nested
+	public class FortisOutputTests {
+		private static String fortisOutput = "[{\"goodTrace\":[\"TurnBSCUOn\",\"SelfCheck\"],\"badTrace\":[\"TurnBSCUOn\",\"Wait\",\"SelfCheck\"],"
+				+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]},"
+				+ "{\"goodTrace\":[\"TurnBSCUOn\"],\"badTrace\":[\"Wait\",\"Wait\",\"Wait\"],"
+				+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]},"
+				+ "{\"goodTrace\":[\"TurnBSCUOn\",\"SelfCheck\"],\"badTrace\":[\"TurnBSCUOn\",\"Wait\",\"SelfCheck\"],"
+				+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]}]";
+
+		@Test
+		void testStreamingMatchesBatch() throws Exception {
+			var expected = dlc.classifyFortisOutput(fortisOutput);
+			var actual = new ArrayList<DamerauLevenshteinClassifier.UnsafeControlAction>();
+			dlc.classifyFortisOutput(new ByteArrayInputStream(fortisOutput.getBytes(StandardCharsets.UTF_8)),
+					actual::add);
+			// Duplicates are only handed to the consumer once
+			assertEquals(2, actual.size());
+			assertEquals(expected, new HashSet<>(actual));
+			assertEquals("NoSkid", actual.get(0).violatedConstraint());
+			assertEquals("BSCU", actual.get(0).source());
+		}
+
+		@Test
+		void testRepeatedTracesDifferentInvariants() throws Exception {
+			String output = "[{\"goodTrace\":[\"TurnBSCUOn\"],\"badTrace\":[\"Wait\",\"TurnBSCUOn\"],"
+					+ "\"violatingComponents\":[\"BSCU\"],\"violatedInvs\":[\"NoSkid\"]},"
+					+ "{\"goodTrace\":[\"TurnBSCUOn\"],\"badTrace\":[\"Wait\",\"TurnBSCUOn\"],"
+					+ "\"violatingComponents\":[\"Pump\"],\"violatedInvs\":[\"NoLeak\"]}]";
+			var actual = new ArrayList<DamerauLevenshteinClassifier.UnsafeControlAction>();
+			dlc.classifyFortisOutput(new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)), actual::add);
+			assertEquals(2, actual.size());
+			var safe = Arrays.asList("TurnBSCUOn");
+			var unsafe = Arrays.asList("Wait", "TurnBSCUOn");
+			assertEquals(dlc.classify(safe, unsafe, "NoSkid", "BSCU"), actual.get(0));
+			assertEquals(dlc.classify(safe, unsafe, "NoLeak", "Pump"), actual.get(1));
+		}
+
+		@Test
+		void testClassifyAllMatchesSingle() throws Exception {
+			var pairs = new ArrayList<DamerauLevenshteinClassifier.TracePair>();
+			var in = new FileInputStream("resources/fortis-out.json");
+			try (var it = DamerauLevenshteinClassifier.readFortisOutput(in)) {
+				it.forEachRemaining(pairs::add);
+			}
+			var failed = new ArrayList<DamerauLevenshteinClassifier.TracePair>();
+			var actual = dlc.classifyAll(pairs, (pair, e) -> failed.add(pair));
+			for (int k = 0; k < pairs.size(); k++) {
+				if (pairs.get(k).goodTrace().equals(pairs.get(k).badTrace())) {
+					assertEquals(null, actual.get(k));
+				} else {
+					assertEquals(dlc.classify(pairs.get(k)), actual.get(k));
+				}
+			}
+			// The last pair's traces are identical
+			assertEquals(List.of(pairs.get(pairs.size() - 1)), failed);
+		}
+
+		@Test
+		void testWriteRoundTrip() throws Exception {
+			var pairs = new ArrayList<DamerauLevenshteinClassifier.TracePair>();
+			try (var it = DamerauLevenshteinClassifier.readFortisOutput(fortisOutput)) {
+				it.forEachRemaining(pairs::add);
+			}
+			var out = new ByteArrayOutputStream();
+			DamerauLevenshteinClassifier.writeFortisOutput(pairs, out);
+			assertEquals(dlc.classifyFortisOutput(fortisOutput),
+					dlc.classifyFortisOutput(out.toString(StandardCharsets.UTF_8)));
+		}
+	}
+
 	@Test
 	void testNoError() {
 		var safe = Arrays.asList("Init", "Sys.TurnPumpOn", "Wait", "Wait", "Wait", "Sys.TurnPumpOff");
@@ -0,0 +1,96 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ucaClassification.ClassificationEngine;
+import ucaClassification.DamerauLevenshteinClassifier;
+import ucaClassification.DamerauLevenshteinClassifier.Guideword;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import ucaClassification.DamerauLevenshteinEngine;
+import ucaClassification.EngineDispatcher;
+
+class EngineDispatcherTests {
+
+	/**
+	 * Accepts short traces, and always answers "Providing"
+	 */
+	private static class WrongEngine implements ClassificationEngine {
+		@Override
+		public String getName() {
+			return "wrong";
+		}
+
+		@Override
+		public boolean accepts(Workload workload) {
+			return workload.safeLength() < 10;
+		}
+
+		@Override
+		public UnsafeControlAction classify(List<String> safe, List<String> unsafe, String invariantName,
+				String sourceName) {
+			return new UnsafeControlAction(sourceName, Guideword.PROVIDING, "Other", "", invariantName);
+		}
+	}
+
+	private static List<String> safe = Arrays.asList("TurnBSCUOn", "SelfCheck");
+	private static List<String> unsafe = Arrays.asList("SelfCheck", "TurnBSCUOn");
+
+	@Test
+	void testChooseByWorkload() {
+		var reference = new DamerauLevenshteinEngine();
+		var wrong = new WrongEngine();
+		var dispatcher = new EngineDispatcher(reference, List.of(wrong), 0);
+		assertSame(wrong, dispatcher.choose(ClassificationEngine.Workload.of(safe, unsafe)));
+		var longTrace = Collections.nCopies(20, "Wait");
+		assertSame(reference, dispatcher.choose(ClassificationEngine.Workload.of(longTrace, unsafe)));
+	}
+
+	@Test
+	void testWorkloadDistanceBound() {
+		var workload = ClassificationEngine.Workload.of(Arrays.asList("A", "B", "C", "D"),
+				Arrays.asList("A", "C", "B", "D"));
+		assertEquals(2, workload.distanceBound());
+	}
+
+	@Test
+	void testCrossCheckUsesReference() {
+		var reference = new DamerauLevenshteinEngine();
+		var dispatcher = new EngineDispatcher(reference, List.of(new WrongEngine()), 1);
+		var dlc = new DamerauLevenshteinClassifier(Collections.emptyMap(), dispatcher);
+		var actual = dlc.classify(safe, unsafe, "NoSkid", "BSCU");
+		assertEquals(reference.classify(safe, unsafe, "NoSkid", "BSCU"), actual);
+		assertEquals(Guideword.OUT_OF_SEQUENCE, actual.guideword());
+		assertEquals(1, dispatcher.getCheckedCount());
+		assertEquals(1, dispatcher.getMismatchCount());
+	}
+}
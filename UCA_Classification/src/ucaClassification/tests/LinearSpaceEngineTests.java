@@ -0,0 +1,100 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ucaClassification.ClassificationEngine;
+import ucaClassification.ClassificationEngine.Workload;
+import ucaClassification.DamerauLevenshteinEngine;
+import ucaClassification.LinearSpaceEngine;
+
+class LinearSpaceEngineTests {
+	private static String invariantName = "##INVARIANT-PLACEHOLDER##";
+	private static String sourceName = "##SOURCE-PLACEHOLDER##";
+	private static DamerauLevenshteinEngine reference = new DamerauLevenshteinEngine();
+	private static LinearSpaceEngine linear = new LinearSpaceEngine(0);
+
+	@Test
+	void testMatchesReference() {
+		var safe = Arrays.asList("Init", "Sys.TurnPumpOn", "Wait", "Wait", "Sys.TurnPumpOff");
+		var unsafes = List.of(Arrays.asList("Init", "Sys.TurnPumpOn", "Wait", "Sys.TurnPumpOff"),
+				Arrays.asList("Init", "Wait", "Sys.TurnPumpOn", "Wait", "Sys.TurnPumpOff"),
+				Arrays.asList("Init", "Sys.TurnPumpOn", "Wait", "Wait"),
+				Arrays.asList("Sys.TurnPumpOn", "Init", "Wait", "Wait", "Sys.TurnPumpOff"),
+				Arrays.asList("Init", "Sys.TurnPumpOff", "Wait", "Wait", "Sys.TurnPumpOff"));
+		for (var unsafe : unsafes) {
+			assertEquals(reference.classify(safe, unsafe, invariantName, sourceName),
+					linear.classify(safe, unsafe, invariantName, sourceName));
+		}
+	}
+
+	@Test
+	void testMatchesReferenceRandom() {
+		String[] actions = { "Wait", "A", "B", "C" };
+		Random random = new Random(0);
+		for (int t = 0; t < 500; t++) {
+			List<String> safe = new ArrayList<>();
+			for (int i = 0; i < 1 + random.nextInt(10); i++) {
+				safe.add(actions[random.nextInt(actions.length)]);
+			}
+			List<String> unsafe = new ArrayList<>(safe);
+			int p = random.nextInt(unsafe.size());
+			unsafe.set(p, actions[random.nextInt(actions.length)]);
+			unsafe.add(random.nextInt(unsafe.size() + 1), actions[random.nextInt(actions.length)]);
+			assertEquals(outcome(reference, safe, unsafe), outcome(linear, safe, unsafe));
+		}
+	}
+
+	/**
+	 * Some pairs can't be classified, and both engines should fail in the same way
+	 * on them
+	 */
+	private static Object outcome(ClassificationEngine engine, List<String> safe, List<String> unsafe) {
+		try {
+			return engine.classify(safe, unsafe, invariantName, sourceName);
+		} catch (RuntimeException e) {
+			return e.getClass();
+		}
+	}
+
+	@Test
+	void testThreshold() {
+		var engine = new LinearSpaceEngine(10000);
+		var shortTrace = Collections.nCopies(10, "Wait");
+		var longTrace = Collections.nCopies(1000, "Wait");
+		assertFalse(engine.accepts(Workload.of(shortTrace, shortTrace)));
+		assertTrue(engine.accepts(Workload.of(longTrace, longTrace)));
+	}
+}
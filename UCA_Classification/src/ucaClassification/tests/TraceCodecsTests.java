@@ -0,0 +1,157 @@
+/**
+ * FASR Source Code
+ * 
+ * Copyright 2025 Carnegie Mellon University.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON 
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED, AS
+ * TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR PURPOSE
+ * OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE 
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * Licensed under a MIT (SEI)-style license, please see license.txt or contact
+ * permission@sei.cmu.edu for full terms.
+ * 
+ * [DISTRIBUTION STATEMENT A] This material has been approved for public 
+ * release and unlimited distribution.  Please see Copyright notice for non-US
+ * Government use and distribution.
+ * 
+ * DM25-0946
+ */
+
+package ucaClassification.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import ucaClassification.DamerauLevenshteinClassifier;
+import ucaClassification.DamerauLevenshteinClassifier.UnsafeControlAction;
+import ucaClassification.TraceCodec;
+import ucaClassification.TraceCodecs;
+
+class TraceCodecsTests {
+	private static DamerauLevenshteinClassifier dlc = new DamerauLevenshteinClassifier();
+	private static Path input = Path.of("resources/fortis-out.json");
+
+	private static byte[] gzip(byte[] plain) throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (OutputStream out = TraceCodecs.compress(compressed, "gzip")) {
+			out.write(plain);
+		}
+		return compressed.toByteArray();
+	}
+
+	@Test
+	void testDetectsGzip() throws Exception {
+		byte[] plain = Files.readAllBytes(input);
+		byte[] compressed = gzip(plain);
+		try (InputStream in = TraceCodecs.open(new ByteArrayInputStream(compressed))) {
+			assertArrayEquals(plain, in.readAllBytes());
+		}
+		// Uncompressed input is passed through untouched
+		try (InputStream in = TraceCodecs.open(new ByteArrayInputStream(plain))) {
+			assertArrayEquals(plain, in.readAllBytes());
+		}
+		try (InputStream in = TraceCodecs.open(new ByteArrayInputStream(new byte[0]))) {
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	void testClassifyCompressed() throws Exception {
+		Set<UnsafeControlAction> expected = new HashSet<>();
+		Set<UnsafeControlAction> actual = new HashSet<>();
+		// Fortis' output ends with a pair that can't be classified, so compare the
+		// pairs before it
+		byte[] plain = Files.readString(input).replaceFirst(",\\s*\\{[^{]*\\}\\s*\\]\\s*$", "]").getBytes();
+		dlc.classifyFortisOutput(new ByteArrayInputStream(plain), expected::add);
+		try (InputStream in = TraceCodecs.open(new ByteArrayInputStream(gzip(plain)))) {
+			dlc.classifyFortisOutput(in, actual::add);
+		}
+		assertEquals(expected, actual);
+		assertEquals(21, actual.size());
+	}
+
+	/**
+	 * A codec whose decoder gives the bytes it is given up to a point, then
+	 * throws
+	 */
+	private static TraceCodec failingCodec(int good, Throwable failure) {
+		return new TraceCodec() {
+			@Override
+			public String getName() {
+				return "failing";
+			}
+
+			@Override
+			public boolean matches(byte[] header, int length) {
+				return true;
+			}
+
+			@Override
+			public InputStream decode(InputStream in) {
+				return new InputStream() {
+					private int read = 0;
+
+					@Override
+					public int read() throws IOException {
+						if (this.read++ == good) {
+							if (failure instanceof Error error) {
+								throw error;
+							}
+							throw (RuntimeException) failure;
+						}
+						return in.read();
+					}
+				};
+			}
+
+			@Override
+			public OutputStream encode(OutputStream out) {
+				return out;
+			}
+		};
+	}
+
+	@Test
+	void testCodecFailure() throws Exception {
+		byte[] plain = Files.readAllBytes(input);
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			try (InputStream in = TraceCodecs.open(new ByteArrayInputStream(plain),
+					failingCodec(100, new IllegalStateException("corrupt block")))) {
+				IOException e = assertThrows(IOException.class, in::readAllBytes);
+				assertEquals("corrupt block", e.getCause().getMessage());
+				// Later reads fail the same way rather than looking like the end
+				assertThrows(IOException.class, in::read);
+				assertThrows(IOException.class, () -> in.read(new byte[10]));
+			}
+			try (InputStream in = TraceCodecs.open(new ByteArrayInputStream(plain),
+					failingCodec(100, new InternalError("codec bug")))) {
+				assertThrows(InternalError.class, in::readAllBytes);
+				assertThrows(InternalError.class, in::read);
+			}
+		});
+	}
+
+	@Test
+	void testUnknownCodec() {
+		assertThrows(IllegalArgumentException.class, () -> TraceCodecs.compress(new ByteArrayOutputStream(), "rar"));
+	}
+}